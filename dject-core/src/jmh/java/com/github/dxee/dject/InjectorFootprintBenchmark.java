@@ -0,0 +1,82 @@
+package com.github.dxee.dject;
+
+import com.github.dxee.dject.lifecycle.LifecycleManager;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Threads and heap retained by live injectors, as in test suites and multi-tenant hosts
+ * creating many Dject instances.  The footprint is reported through the threads and
+ * heapBytes counters, the benchmark itself only touches the injectors.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 1, time = 1)
+@Measurement(iterations = 3, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InjectorFootprintBenchmark {
+    @Param("10000")
+    public int injectorCount;
+
+    private final List<Dject> injectors = new ArrayList<>();
+    private long threads;
+    private long heapBytes;
+    private int next;
+
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Footprint {
+        public long threads;
+        public long heapBytes;
+    }
+
+    @Setup(Level.Iteration)
+    public void createInjectors() {
+        long threadsBefore = Thread.activeCount();
+        long heapBefore = usedHeap();
+        for (int i = 0; i < injectorCount; i++) {
+            injectors.add(Dject.newBuilder().withModule(binder -> { }).build());
+        }
+        threads = Thread.activeCount() - threadsBefore;
+        heapBytes = usedHeap() - heapBefore;
+    }
+
+    @TearDown(Level.Iteration)
+    public void shutdownInjectors() {
+        injectors.forEach(Dject::shutdown);
+        injectors.clear();
+    }
+
+    @Benchmark
+    public LifecycleManager getInstance(Footprint footprint) {
+        footprint.threads = threads;
+        footprint.heapBytes = heapBytes;
+        next = (next + 1) % injectors.size();
+        return injectors.get(next).getInstance(LifecycleManager.class);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.dxee.dject.internal;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.PostConstruct;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of calling a lifecycle method through each {@link JSR250LifecycleAction.InvocationStrategy}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LifecycleActionInvocationBenchmark {
+    public static class Target {
+        int initialized;
+
+        @PostConstruct
+        public void init() {
+            initialized++;
+        }
+    }
+
+    private final Target target = new Target();
+    private JSR250LifecycleAction lambda;
+    private JSR250LifecycleAction methodHandle;
+    private JSR250LifecycleAction reflection;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method method = Target.class.getDeclaredMethod("init");
+        lambda = create(method, JSR250LifecycleAction.InvocationStrategy.LAMBDA);
+        methodHandle = create(method, JSR250LifecycleAction.InvocationStrategy.METHOD_HANDLE);
+        reflection = create(method, JSR250LifecycleAction.InvocationStrategy.REFLECTION);
+    }
+
+    private static JSR250LifecycleAction create(Method method, JSR250LifecycleAction.InvocationStrategy strategy) {
+        return new JSR250LifecycleAction(PostConstruct.class, method,
+                JSR250LifecycleAction.ValidationMode.STRICT, strategy);
+    }
+
+    @Benchmark
+    public int lambda() throws InvocationTargetException {
+        lambda.call(target);
+        return target.initialized;
+    }
+
+    @Benchmark
+    public int methodHandle() throws InvocationTargetException {
+        methodHandle.call(target);
+        return target.initialized;
+    }
+
+    @Benchmark
+    public int reflection() throws InvocationTargetException {
+        reflection.call(target);
+        return target.initialized;
+    }
+}
@@ -0,0 +1,90 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of registering lifecycle listeners from several threads at once.  Every provision of a
+ * listener registers it with the injector's LifecycleManager, so concurrent provisioning contends
+ * on the listener registry.  Registering listeners that are already known isolates the registry
+ * from the cost of creating and collecting new listeners.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LifecycleListenerRegistrationBenchmark {
+    public static class Listener implements LifecycleListener {
+        @Override
+        public void onStarted() {
+        }
+
+        @Override
+        public void onStopped(Throwable error) {
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+        int next;
+    }
+
+    private Dject dject;
+    private LifecycleManager manager;
+    private LifecycleListener[] registered;
+
+    @Setup
+    public void setUp() {
+        dject = Dject.newBuilder().withModule(binder -> { }).build();
+        manager = dject.getInstance(LifecycleManager.class);
+        registered = new LifecycleListener[1024];
+        for (int i = 0; i < registered.length; i++) {
+            registered[i] = new Listener();
+            manager.addListener(registered[i]);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        dject.shutdown();
+    }
+
+    @Benchmark
+    @Threads(1)
+    public Object provisionListener() {
+        return dject.getInstance(Listener.class);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public Object provisionListenerConcurrently() {
+        return dject.getInstance(Listener.class);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public void addRegisteredListener(Cursor cursor) {
+        manager.addListener(registered[cursor.next++ & (registered.length - 1)]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void addRegisteredListenerConcurrently(Cursor cursor) {
+        manager.addListener(registered[cursor.next++ & (registered.length - 1)]);
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of provisioning unscoped objects through Dject compared to plain Guice.  For types
+ * without lifecycle methods the per-provision overhead of LifecycleModule should be
+ * close to zero, as should be the cost of sampling runtime provision metrics.  Providers
+ * returning a different type on every call shouldn't cost more than one type lookup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LifecycleProvisionBenchmark {
+    public static class NoLifecycle {
+    }
+
+    public static class WithPostConstruct {
+        int initialized;
+
+        @PostConstruct
+        public void init() {
+            initialized++;
+        }
+    }
+
+    public interface Varying {
+    }
+
+    public static class VaryingA extends WithPostConstruct implements Varying {
+    }
+
+    public static class VaryingB extends WithPostConstruct implements Varying {
+    }
+
+    private Injector guice;
+    private Dject dject;
+    private Dject sampledDject;
+
+    @Setup
+    public void setUp() {
+        guice = Guice.createInjector();
+        dject = Dject.newBuilder().withModule(binder -> binder.bind(Varying.class).toProvider(new Provider<Varying>() {
+            private int count;
+
+            @Override
+            public Varying get() {
+                return (count++ & 1) == 0 ? new VaryingA() : new VaryingB();
+            }
+        })).build();
+        sampledDject = Dject.newBuilder()
+                .withFeature(DjectFeatures.RUNTIME_PROVISION_SAMPLING, 100)
+                .withModule(binder -> { })
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        dject.shutdown();
+        sampledDject.shutdown();
+    }
+
+    @Benchmark
+    public Object guiceNoLifecycle() {
+        return guice.getInstance(NoLifecycle.class);
+    }
+
+    @Benchmark
+    public Object djectNoLifecycle() {
+        return dject.getInstance(NoLifecycle.class);
+    }
+
+    @Benchmark
+    public Object guicePostConstruct() {
+        return guice.getInstance(WithPostConstruct.class);
+    }
+
+    @Benchmark
+    public Object djectPostConstruct() {
+        return dject.getInstance(WithPostConstruct.class);
+    }
+
+    @Benchmark
+    public Object djectVaryingProvider() {
+        return dject.getInstance(Varying.class);
+    }
+
+    @Benchmark
+    public Object sampledDjectPostConstruct() {
+        return sampledDject.getInstance(WithPostConstruct.class);
+    }
+}
@@ -3,6 +3,13 @@ package com.github.dxee.dject;
 import com.github.dxee.dject.annotations.SuppressLifecycleUninitialized;
 import com.github.dxee.dject.feature.DjectFeature;
 import com.github.dxee.dject.feature.DjectFeatureContainer;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.github.dxee.dject.internal.BoundTypes;
+import com.github.dxee.dject.internal.DefaultPropertySource;
+import com.github.dxee.dject.internal.DeferredSingletonScope;
+import com.github.dxee.dject.internal.ElementTraversal;
+import com.github.dxee.dject.internal.ParallelSingletonInstantiator;
+import com.github.dxee.dject.internal.SingletonRescoper;
 import com.github.dxee.dject.lifecycle.*;
 import com.github.dxee.dject.metrics.ProvisionMetricsModule;
 import com.github.dxee.dject.metrics.logging.LoggingProvisionModule;
@@ -10,6 +17,7 @@ import com.github.dxee.dject.spi.PropertySource;
 import com.github.dxee.dject.trace.TracingProvisionListener;
 import com.github.dxee.dject.visitors.*;
 import com.google.common.base.Preconditions;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.*;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.spi.Element;
@@ -22,6 +30,8 @@ import org.slf4j.LoggerFactory;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 
 /**
@@ -30,10 +40,18 @@ import java.util.function.Consumer;
 @Singleton
 public final class Dject extends DelegatingInjector {
     private static final Logger LOGGER = LoggerFactory.getLogger(Dject.class);
-    private final LifecycleManager manager = new LifecycleManager();
+    // Source of the features read before the injector exists, see DjectFeatures
+    private static final PropertySource BOOTSTRAP_PROPERTIES = new DefaultPropertySource();
+    private final LifecycleManager manager;
     private final Stage stage;
     private final Module module;
+    // Elements of the module already recorded by the builder in the same stage, null if none
+    private final List<Element> moduleElements;
     private final IdentityHashMap<DjectFeature<?>, Object> features;
+    private final DjectFeatureContainerImpl djectFeatureContainer;
+    private final Set<Key<?>> criticalKeys;
+    private final Readiness readiness = new Readiness();
+    private DeferredSingletonScope lazySingletonScope;
 
     // From guice
     @Inject
@@ -43,10 +61,18 @@ public final class Dject extends DelegatingInjector {
     public Dject(Builder builder) {
         this.stage = builder.stage;
         this.module = builder.module;
+        this.moduleElements = builder.recordedElements(builder.stage);
         this.features = builder.features;
+        this.criticalKeys = new LinkedHashSet<>(builder.criticalKeys);
+        this.djectFeatureContainer = new DjectFeatureContainerImpl(features);
+        this.manager = new LifecycleManager(
+                djectFeatureContainer.getBeforeInjection(DjectFeatures.LIFECYCLE_LISTENER_PARALLELISM));
         // create guice injector here
         this.injector = createInjector();
         this.injector.injectMembers(this);
+        if (djectFeatureContainer.get(DjectFeatures.JMX)) {
+            this.injector.getInstance(DjectStats.class).register("Dject@" + System.identityHashCode(this));
+        }
     }
 
     @Singleton
@@ -65,9 +91,24 @@ public final class Dject extends DelegatingInjector {
         @SuppressWarnings("unchecked")
         @Override
         public <T> T get(DjectFeature<T> feature) {
+            if (featureOverrides.containsKey(feature)) {
+                return (T) featureOverrides.get(feature);
+            }
+            Preconditions.checkState(properties != null,
+                    "Feature %s read before the PropertySource was injected", feature.getKey());
+            return properties.get(feature.getKey(), feature.getType(), feature.getDefaultValue());
+        }
+
+        /**
+         * Read a feature configuring how the injector is created.  No PropertySource bound by the
+         * application exists yet, so the feature is only read from the builder or from system and
+         * environment properties.
+         */
+        @SuppressWarnings("unchecked")
+        <T> T getBeforeInjection(DjectFeature<T> feature) {
             return featureOverrides.containsKey(feature)
                     ? (T) featureOverrides.get(feature)
-                    : (T) properties.get(feature.getKey(), feature.getType(), feature.getDefaultValue());
+                    : BOOTSTRAP_PROPERTIES.get(feature.getKey(), feature.getType(), feature.getDefaultValue());
         }
     }
 
@@ -76,27 +117,92 @@ public final class Dject extends DelegatingInjector {
      * @return Injector
      */
     private Injector createInjector() {
+        ExecutorService warmupExecutor = null;
         // Construct the injector using our override structure
         try {
-            final DjectFeatureContainerImpl djectFeatureContainer = new DjectFeatureContainerImpl(features);
+            boolean lazySingletons = djectFeatureContainer.getBeforeInjection(DjectFeatures.LAZY_SINGLETONS);
+            boolean parallelEagerSingletons =
+                    djectFeatureContainer.getBeforeInjection(DjectFeatures.PARALLEL_EAGER_SINGLETONS);
+            boolean deferEagerSingletons = parallelEagerSingletons || !criticalKeys.isEmpty();
+            int warmupThreads = djectFeatureContainer.getBeforeInjection(DjectFeatures.WARMUP_THREADS);
+
+            // The module is configured at most once, the passes below work on its elements which
+            // the injector then replays
+            Module userModule = module;
+            // Elements already recorded by the builder are replayed rather than configuring the module again
+            List<Element> elements = moduleElements;
+            if (elements == null && (lazySingletons || deferEagerSingletons || warmupThreads > 0)) {
+                elements = Elements.getElements(stage, module);
+            }
+
+            // Singletons that are only eager because of the stage are hidden from Guice so they
+            // are built on first use
+            if (lazySingletons) {
+                lazySingletonScope = new DeferredSingletonScope("LazySingleton");
+                elements = SingletonRescoper.rescopeElements(
+                        elements,
+                        SingletonRescoper.lazySingletons(),
+                        lazySingletonScope);
+            }
+
+            // Eager singletons are taken away from Guice so they can be built in parallel, or
+            // in the background for those not needed by critical keys, once the injector has been created
+            DeferredSingletonScope eagerSingletonScope = null;
+            if (deferEagerSingletons) {
+                eagerSingletonScope = new DeferredSingletonScope("EagerSingleton");
+                elements = SingletonRescoper.rescopeElements(
+                        elements,
+                        SingletonRescoper.eagerSingletons(stage),
+                        eagerSingletonScope);
+            }
+
+            if (elements != null) {
+                userModule = Elements.getModule(elements);
+            }
+
+            // Bound classes are loaded and their lifecycle methods found while Guice analyses the bindings
+            LifecycleModule lifecycleModule = new LifecycleModule();
+            if (warmupThreads > 0) {
+                warmupExecutor = Executors.newFixedThreadPool(warmupThreads, new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("dject-warmup-%d")
+                        .build());
+                lifecycleModule.warmup(BoundTypes.of(elements), warmupExecutor);
+            }
 
             Injector injector = Guice.createInjector(
                     stage,
                     // This has to be first to make sure @PostConstruct support is added as early
                     // as possible
                     new ProvisionMetricsModule(),
-                    new LifecycleModule(),
+                    lifecycleModule,
                     new LifecycleListenerModule(),
                     new AbstractModule() {
                         @Override
                         protected void configure() {
                             bind(DjectFeatureContainer.class).toInstance(djectFeatureContainer);
                             bind(LifecycleManager.class).toInstance(manager);
+                            bind(Readiness.class).toInstance(readiness);
                         }
                     },
-                    module
+                    userModule
             );
+            Set<Key<?>> backgroundKeys = Collections.emptySet();
+            ParallelSingletonInstantiator instantiator = new ParallelSingletonInstantiator(injector,
+                    parallelEagerSingletons ? djectFeatureContainer.get(DjectFeatures.EAGER_SINGLETON_PARALLELISM) : 1);
+            if (!criticalKeys.isEmpty()) {
+                instantiator.instantiate(criticalKeys);
+                // Dependencies of the critical keys were built along with them
+                backgroundKeys = new LinkedHashSet<>(eagerSingletonScope.getUnmaterializedKeys());
+                backgroundKeys.removeAll(criticalKeys);
+            } else if (eagerSingletonScope != null) {
+                instantiator.instantiate(eagerSingletonScope.getKeys());
+            }
             manager.notifyStarted();
+            readiness.criticalPathReady(backgroundKeys.size());
+            if (!backgroundKeys.isEmpty()) {
+                instantiateInBackground(instantiator, backgroundKeys);
+            }
             LOGGER.info("Injector created successfully");
             return injector;
         } catch (Exception e) {
@@ -104,19 +210,77 @@ public final class Dject extends DelegatingInjector {
                     e.getClass().getSimpleName(),
                     System.identityHashCode(e),
                     e);
+            readiness.failed(e);
             try {
                 manager.notifyStartFailed(e);
             } catch (Exception e2) {
                 LOGGER.error("Failed to notify injector creation failure", e2);
             }
             throw e;
+        } finally {
+            if (warmupExecutor != null) {
+                // Queued warmup keeps running, threads exit once it is done
+                warmupExecutor.shutdown();
+            }
         }
     }
 
+    private void instantiateInBackground(ParallelSingletonInstantiator instantiator, Set<Key<?>> keys) {
+        LOGGER.info("Instantiating {} eager singletons in the background", keys.size());
+        Thread thread = new Thread(() -> {
+            try {
+                instantiator.instantiate(keys, new ParallelSingletonInstantiator.Progress() {
+                    @Override
+                    public boolean beforeInstantiate(Key<?> key) {
+                        return manager.getState() == LifecycleManager.State.Started;
+                    }
+
+                    @Override
+                    public void instantiated(Key<?> key) {
+                        readiness.instantiated(key);
+                    }
+                });
+                if (readiness.getBackgroundCompleted() < keys.size()) {
+                    throw new IllegalStateException("Injector stopped before all eager singletons were instantiated");
+                }
+                readiness.backgroundCompleted();
+                LOGGER.info("Eager singletons instantiated in the background, {}", readiness);
+            } catch (RuntimeException | Error e) {
+                LOGGER.error("Failed to instantiate eager singletons in the background", e);
+                readiness.failed(e);
+            }
+        }, "dject-background-singletons");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return Readiness of the injector, see {@link Builder#withCriticalKeys(Key[])}
+     */
+    public Readiness getReadiness() {
+        return readiness;
+    }
+
+    /**
+     * Report of singletons that were never provisioned when {@link DjectFeatures#LAZY_SINGLETONS} is enabled.
+     * Such bindings are candidates for removal from the modules used by this deployment.
+     *
+     * @return Keys of lazy singletons that haven't been instantiated yet, empty if lazy singletons are disabled
+     */
+    public Set<Key<?>> getUnmaterializedLazySingletons() {
+        return lazySingletonScope != null ? lazySingletonScope.getUnmaterializedKeys() : Collections.emptySet();
+    }
+
     /**
      * Shutdown for the lifecycle manager
      */
     public void shutdown() {
+        if (lazySingletonScope != null) {
+            LOGGER.info("{} of {} lazy singletons were never instantiated: {}",
+                    lazySingletonScope.getUnmaterializedKeys().size(),
+                    lazySingletonScope.getKeys().size(),
+                    lazySingletonScope.getUnmaterializedKeys());
+        }
         lifecycleShutdown.shutdown();
     }
 
@@ -137,6 +301,13 @@ public final class Dject extends DelegatingInjector {
         private Stage stage = Stage.DEVELOPMENT;
         private Module module;
         private IdentityHashMap<DjectFeature<?>, Object> features = new IdentityHashMap<>();
+        private Set<Key<?>> criticalKeys = new LinkedHashSet<>();
+        // Elements of the module by the stage they were recorded in, reset whenever the module changes
+        private final Map<Stage, List<Element>> elements = new EnumMap<>(Stage.class);
+        // Elements of a module created from a list of elements, which are the same in every stage
+        private List<Element> fixedElements;
+        // Batched visitors share a single traversal of the elements, run before the module changes
+        private final ElementTraversal pendingVisitors = new ElementTraversal();
 
         public Builder withStage(Stage stage) {
             this.stage = stage;
@@ -146,35 +317,35 @@ public final class Dject extends DelegatingInjector {
         public Builder withModule(Module module) {
             Preconditions.checkArgument(module != null, "module may not be null");
 
-            this.module = module;
+            setModule(module);
             return this;
         }
 
         public Builder withModules(Module... modules) {
             Preconditions.checkArgument(modules != null, "modules may not be null");
 
-            this.module = Modules.combine(modules);
+            setModule(Modules.combine(modules));
             return this;
         }
 
         public Builder withModules(List<Module> modules) {
             Preconditions.checkArgument(modules != null, "modules may not be null");
 
-            this.module = Modules.combine(modules);
+            setModule(Modules.combine(modules));
             return this;
         }
 
         public Builder withOverrideModules(Module... modules) {
             Preconditions.checkArgument(modules != null, "modules may not be null");
 
-            this.module = Modules.override(module).with(modules);
+            setModule(Modules.override(module).with(modules));
             return this;
         }
 
         public Builder withOverrideModules(Collection<Module> modules) {
             Preconditions.checkArgument(modules != null, "modules may not be null");
 
-            this.module = Modules.override(module).with(modules);
+            setModule(Modules.override(module).with(modules));
             return this;
         }
 
@@ -184,10 +355,42 @@ public final class Dject extends DelegatingInjector {
             List<Module> m = new ArrayList<>();
             m.add(module);
             m.addAll(Arrays.asList(modules));
-            this.module = Modules.combine(m);
+            setModule(Modules.combine(m));
             return this;
         }
 
+        private void setModule(Module module) {
+            setModule(module, null);
+        }
+
+        private void setModule(Module module, List<Element> fixedElements) {
+            // Pending visitors were added for the current module
+            visitPendingElements();
+            this.module = module;
+            this.fixedElements = fixedElements;
+            this.elements.clear();
+        }
+
+        private List<Element> elements(Stage stage) {
+            if (fixedElements != null) {
+                return fixedElements;
+            }
+            return elements.computeIfAbsent(stage, s -> Elements.getElements(s, module));
+        }
+
+        /**
+         * @return Elements of the current module already recorded in the stage or null
+         */
+        private List<Element> recordedElements(Stage stage) {
+            return fixedElements != null ? fixedElements : elements.get(stage);
+        }
+
+        private void visitPendingElements() {
+            if (!pendingVisitors.isEmpty()) {
+                pendingVisitors.traverse(elements(stage));
+            }
+        }
+
         public Builder withFeatures(IdentityHashMap<DjectFeature<?>, Object> features) {
             Preconditions.checkArgument(features != null, "features may not be null");
             features.putAll(features);
@@ -204,6 +407,36 @@ public final class Dject extends DelegatingInjector {
             return this;
         }
 
+        /**
+         * Keys required to serve traffic.  Only critical keys and their dependencies are provisioned
+         * before the injector is started, remaining eager singletons are instantiated in the background
+         * afterwards.  See {@link Dject#getReadiness()} for tracking their progress.
+         */
+        public Builder withCriticalKeys(Key<?>... keys) {
+            Preconditions.checkArgument(keys != null, "keys may not be null");
+            return withCriticalKeys(Arrays.asList(keys));
+        }
+
+        /**
+         * See {@link #withCriticalKeys(Key[])}
+         */
+        public Builder withCriticalKeys(Collection<Key<?>> keys) {
+            Preconditions.checkArgument(keys != null, "keys may not be null");
+            this.criticalKeys.addAll(keys);
+            return this;
+        }
+
+        /**
+         * Load bound classes and find their lifecycle methods on a pool of threads while the
+         * injector is being created.  See {@link DjectFeatures#WARMUP_THREADS}
+         *
+         * @param threads number of warmup threads
+         */
+        public Builder withWarmup(int threads) {
+            Preconditions.checkArgument(threads >= 0, "threads may not be negative");
+            return withFeature(DjectFeatures.WARMUP_THREADS, threads);
+        }
+
         /**
          * For debug purpose, See {@link LoggingProvisionModule}
          */
@@ -233,8 +466,7 @@ public final class Dject extends DelegatingInjector {
          * @param visitor visitor
          */
         public <T> Builder withEachElementVister(ElementVisitor<T> visitor) {
-            Elements.getElements(module)
-                    .forEach(element -> element.acceptVisitor(visitor));
+            elements(Stage.DEVELOPMENT).forEach(element -> element.acceptVisitor(visitor));
             return this;
         }
 
@@ -247,39 +479,66 @@ public final class Dject extends DelegatingInjector {
          * @param visitor visitor
          */
         public <T> Builder withEachElementVister(ElementVisitor<T> visitor, Consumer<T> consumer) {
-            Elements.getElements(module).forEach(
+            elements(Stage.DEVELOPMENT).forEach(
                     element -> Optional.ofNullable(element.acceptVisitor(visitor)).ifPresent(consumer)
             );
             return this;
         }
 
+        /**
+         * Call the provided visitor for all elements of the current module, see
+         * {@link #withBatchedElementVisitor(ElementVisitor, Consumer)}
+         *
+         * @param visitor visitor
+         */
+        public <T> Builder withBatchedElementVisitor(ElementVisitor<T> visitor) {
+            return withBatchedElementVisitor(visitor, result -> { });
+        }
+
+        /**
+         * Like {@link #withEachElementVister(ElementVisitor, Consumer)}, but instead of visiting the elements
+         * right away the visitor is run together with all other batched visitors in a single traversal of
+         * the elements.  The traversal happens once the module changes or the injector is built, on the
+         * elements recorded in the builder's stage, which the injector then reuses.
+         * <p>
+         * The visitor is called for one element after another unless it implements
+         * {@link com.github.dxee.dject.spi.ConcurrentElementVisitor}, in which case large modules may
+         * be visited concurrently.  The consumer is called in element order.
+         *
+         * @param visitor visitor
+         */
+        public <T> Builder withBatchedElementVisitor(ElementVisitor<T> visitor, Consumer<T> consumer) {
+            pendingVisitors.add(visitor, consumer);
+            return this;
+        }
+
         /**
          * Log the current binding state.  traceEachKey() is useful for debugging a sequence of
          * operation where the binding snapshot can be dumped to the log after an operation.
          */
         public Builder withTraceEachKey() {
-            return withEachElementVister(new KeyTracingVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new KeyTracingVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
          * Log each binding
          */
         public Builder withTraceEachBinding() {
-            return withEachElementVister(new BindingTracingVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new BindingTracingVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
          * Log  each modulesource
          */
         public Builder withTraceEachModuleSource() {
-            return withEachElementVister(new ModuleSourceTracingVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new ModuleSourceTracingVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
          * Log each provision listener
          */
         public Builder withTraceEachProvisionListener() {
-            return withEachElementVister(new ProvisionListenerTracingVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new ProvisionListenerTracingVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
@@ -287,14 +546,14 @@ public final class Dject extends DelegatingInjector {
          * to alllow for backwards compatibility with non DI'd static code.
          */
         public Builder withWarnOfStaticInjections() {
-            return withEachElementVister(new WarnOfStaticInjectionVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new WarnOfStaticInjectionVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
          * Log a warning that instance injection is being used.
          */
         public Builder withWarnOfToInstanceInjections() {
-            return withEachElementVister(new WarnOfToInstanceInjectionVisitor(), message -> LOGGER.debug(message));
+            return withBatchedElementVisitor(new WarnOfToInstanceInjectionVisitor(), message -> LOGGER.debug(message));
         }
 
         /**
@@ -304,12 +563,12 @@ public final class Dject extends DelegatingInjector {
          */
         public Builder withFilter(ElementVisitor<Boolean> predicate) {
             List<Element> elements = new ArrayList<Element>();
-            for (Element element : Elements.getElements(Stage.TOOL, module)) {
+            for (Element element : elements(Stage.TOOL)) {
                 if (element.acceptVisitor(predicate)) {
                     elements.add(element);
                 }
             }
-            this.module = Elements.getModule(elements);
+            setModule(Elements.getModule(elements), Collections.unmodifiableList(elements));
             return this;
         }
 
@@ -324,10 +583,13 @@ public final class Dject extends DelegatingInjector {
          * @return Return all elements in the managed module
          */
         public List<Element> getElements() {
-            return Elements.getElements(Stage.TOOL, module);
+            // Batched visitors are run even if the injector is never built
+            visitPendingElements();
+            return elements(Stage.TOOL);
         }
 
         public Dject build() {
+            visitPendingElements();
             return new Dject(this);
         }
     }
@@ -0,0 +1,98 @@
+package com.github.dxee.dject;
+
+import com.google.inject.Key;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Readiness of an injector created with critical keys, see {@link Dject.Builder#withCriticalKeys}.
+ * <p>
+ * The critical path is ready once all critical keys have been provisioned and the injector has been
+ * started.  Remaining eager singletons are then instantiated in the background and the injector is
+ * ready once all of them have been built.  Without critical keys both happen before
+ * {@link Dject.Builder#build()} returns.
+ * <p>
+ * Readiness is bound in the injector and can be injected, for example by health checks.
+ */
+public final class Readiness {
+    private final CompletableFuture<Void> criticalPath = new CompletableFuture<>();
+    private final CompletableFuture<Void> ready = new CompletableFuture<>();
+    private final AtomicInteger backgroundCount = new AtomicInteger();
+    private final AtomicInteger backgroundCompleted = new AtomicInteger();
+
+    Readiness() {
+    }
+
+    /**
+     * @return True once all critical keys have been provisioned and the injector was started
+     */
+    public boolean isCriticalPathReady() {
+        return criticalPath.isDone() && !criticalPath.isCompletedExceptionally();
+    }
+
+    /**
+     * @return True once all eager singletons, including those instantiated in the background, have been built
+     */
+    public boolean isReady() {
+        return ready.isDone() && !ready.isCompletedExceptionally();
+    }
+
+    /**
+     * @return Stage completed once the critical path is ready
+     */
+    public CompletionStage<Void> whenCriticalPathReady() {
+        return criticalPath.thenApply(ignore -> null);
+    }
+
+    /**
+     * @return Stage completed once the injector is ready, or completed exceptionally if a singleton
+     *         instantiated in the background failed
+     */
+    public CompletionStage<Void> whenReady() {
+        return ready.thenApply(ignore -> null);
+    }
+
+    /**
+     * @return Number of eager singletons instantiated in the background
+     */
+    public int getBackgroundCount() {
+        return backgroundCount.get();
+    }
+
+    /**
+     * @return Number of eager singletons already instantiated in the background
+     */
+    public int getBackgroundCompleted() {
+        return backgroundCompleted.get();
+    }
+
+    void criticalPathReady(int backgroundCount) {
+        this.backgroundCount.set(backgroundCount);
+        criticalPath.complete(null);
+        if (backgroundCount == 0) {
+            ready.complete(null);
+        }
+    }
+
+    void instantiated(Key<?> key) {
+        backgroundCompleted.incrementAndGet();
+    }
+
+    void backgroundCompleted() {
+        ready.complete(null);
+    }
+
+    void failed(Throwable t) {
+        criticalPath.completeExceptionally(t);
+        ready.completeExceptionally(t);
+    }
+
+    @Override
+    public String toString() {
+        return "Readiness[criticalPath=" + isCriticalPathReady()
+                + ", ready=" + isReady()
+                + ", background=" + backgroundCompleted.get() + "/" + backgroundCount.get() + "]";
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.dxee.dject.annotations;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a @PostConstruct method to be run asynchronously instead of on the thread
+ * provisioning the instance.  Asynchronous initializers that are started while the
+ * injector is being created must all complete before the LifecycleManager reports
+ * the injector as started, and a failure of any of them fails the startup.
+ * <p>
+ * Once started, instances are initialized synchronously.
+ *
+ * <code>
+ * {@literal @}PostConstruct
+ * {@literal @}AsyncInit
+ * public void warmCache() {
+ * }
+ * </code>
+ *
+ * @see com.github.dxee.dject.feature.DjectFeatures#ASYNC_INIT_THREADS
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface AsyncInit {
+
+}
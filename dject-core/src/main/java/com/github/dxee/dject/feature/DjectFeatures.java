@@ -2,6 +2,12 @@ package com.github.dxee.dject.feature;
 
 /**
  * Core Dject features.  Features are configured/enabled on {@link com.github.dxee.dject.Dject}
+ * <p>
+ * {@link #PARALLEL_EAGER_SINGLETONS}, {@link #LAZY_SINGLETONS}, {@link #WARMUP_THREADS} and
+ * {@link #LIFECYCLE_LISTENER_PARALLELISM} decide how the injector is created, so they are read before
+ * any {@link com.github.dxee.dject.spi.PropertySource} bound in the application's modules exists.
+ * They are only set through {@link com.github.dxee.dject.Dject.Builder#withFeature} or a system or
+ * environment property.
  */
 public final class DjectFeatures {
     /**
@@ -29,5 +35,98 @@ public final class DjectFeatures {
      */
     public static final DjectFeature<Boolean> PREDESTROY_AUTOCLOSEABLE =
             DjectFeature.create("dject.features.predestroyautocloseable", true);
-    
+
+    /**
+     * Enables parallel instantiation of eager singletons.  Independent subtrees of the
+     * singleton dependency graph are built concurrently instead of one after another
+     * on the thread creating the injector; default is false
+     */
+    public static final DjectFeature<Boolean> PARALLEL_EAGER_SINGLETONS =
+            DjectFeature.create("dject.features.parallelEagerSingletons", false);
+
+    /**
+     * Maximum number of threads used to instantiate eager singletons when
+     * {@link #PARALLEL_EAGER_SINGLETONS} is enabled
+     */
+    public static final DjectFeature<Integer> EAGER_SINGLETON_PARALLELISM =
+            DjectFeature.create("dject.features.eagerSingletonParallelism",
+                    Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum number of threads used to run @PostConstruct methods annotated with
+     * {@link com.github.dxee.dject.annotations.AsyncInit} while the injector is starting
+     */
+    public static final DjectFeature<Integer> ASYNC_INIT_THREADS =
+            DjectFeature.create("dject.features.asyncInitThreads",
+                    Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Maximum number of @PreDestroy actions run concurrently when the injector is shut down.
+     * Actions still run in reverse dependency order; default is 1, which runs them serially
+     */
+    public static final DjectFeature<Integer> SHUTDOWN_PARALLELISM =
+            DjectFeature.create("dject.features.shutdownParallelism", 1);
+
+    /**
+     * Total time in milliseconds for running @PreDestroy actions when the injector is shut down.
+     * Actions that haven't started once it has passed are skipped; default is 0, no limit
+     */
+    public static final DjectFeature<Long> SHUTDOWN_TIMEOUT_MILLIS =
+            DjectFeature.create("dject.features.shutdownTimeoutMillis", 0L);
+
+    /**
+     * Time in milliseconds after which a single @PreDestroy action is interrupted and abandoned
+     * when the injector is shut down; default is 0, no limit
+     */
+    public static final DjectFeature<Long> SHUTDOWN_ACTION_TIMEOUT_MILLIS =
+            DjectFeature.create("dject.features.shutdownActionTimeoutMillis", 0L);
+
+    /**
+     * Maximum number of lifecycle listeners of the same phase notified concurrently when the injector has
+     * started.  Each phase waits for all of its listeners; default is 1, which notifies them in registration order
+     *
+     * @see com.github.dxee.dject.lifecycle.PhasedLifecycleListener
+     */
+    public static final DjectFeature<Integer> LIFECYCLE_LISTENER_PARALLELISM =
+            DjectFeature.create("dject.features.lifecycleListenerParallelism", 1);
+
+    /**
+     * Defers construction of singletons until they are first provisioned, even in Stage.PRODUCTION.
+     * Bindings explicitly bound with asEagerSingleton() are still instantiated eagerly; default is false
+     *
+     * @see com.github.dxee.dject.Dject#getUnmaterializedLazySingletons()
+     */
+    public static final DjectFeature<Boolean> LAZY_SINGLETONS =
+            DjectFeature.create("dject.features.lazySingletons", false);
+
+    /**
+     * File recording the @PostConstruct and @PreDestroy methods found for each type.  Types whose classes
+     * haven't changed since they were recorded skip scanning their class hierarchy on following runs;
+     * default is empty, no snapshot
+     */
+    public static final DjectFeature<String> LIFECYCLE_SNAPSHOT =
+            DjectFeature.create("dject.features.lifecycleSnapshot", "");
+
+    /**
+     * Number of threads loading the bound classes and finding their lifecycle methods while the injector
+     * is being created, so that the first provision of each type doesn't have to; default is 0, no warmup
+     */
+    public static final DjectFeature<Integer> WARMUP_THREADS =
+            DjectFeature.create("dject.features.warmupThreads", 0);
+
+    /**
+     * Records one in N provisions once the injector has started, see
+     * {@link com.github.dxee.dject.metrics.ProvisionMetrics#getRuntimeKeyMetrics()}.  1 records every provision;
+     * default is 0, provisions are only recorded during startup
+     */
+    public static final DjectFeature<Integer> RUNTIME_PROVISION_SAMPLING =
+            DjectFeature.create("dject.features.runtimeProvisionSampling", 0);
+
+    /**
+     * Registers a {@link com.github.dxee.dject.lifecycle.DjectMXBean} per injector with the platform MBeanServer,
+     * publishing lifecycle, provisioning and shutdown statistics until the injector stops; default is false
+     */
+    public static final DjectFeature<Boolean> JMX =
+            DjectFeature.create("dject.features.jmx", false);
+
 }
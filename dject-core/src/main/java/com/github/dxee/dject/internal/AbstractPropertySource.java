@@ -17,6 +17,9 @@ public abstract class AbstractPropertySource implements PropertySource {
         if (value == null) {
             return defaultValue;
         }
+        if (type == String.class) {
+            return (T) value;
+        }
         Method method;
         try {
             method = type.getDeclaredMethod("valueOf", String.class);
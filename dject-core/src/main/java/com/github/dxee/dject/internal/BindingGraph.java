@@ -0,0 +1,83 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Dependency graph between a subset of an injector's keys, used to order work such as
+ * instantiation and destruction of singletons.
+ */
+final class BindingGraph {
+    private BindingGraph() {
+    }
+
+    /**
+     * @return For each key, the keys from the same set that it depends on, directly or through
+     *         bindings that are not part of the set
+     */
+    static Map<Key<?>, Set<Key<?>>> dependencies(Injector injector, Set<Key<?>> keys) {
+        Map<Key<?>, Set<Key<?>>> graph = new LinkedHashMap<>();
+        for (Key<?> key : keys) {
+            Set<Key<?>> dependencies = new LinkedHashSet<>();
+            Set<Key<?>> visited = new HashSet<>();
+            visited.add(key);
+            collectDependencies(injector, key, keys, visited, dependencies);
+            graph.put(key, dependencies);
+        }
+        return graph;
+    }
+
+    /**
+     * @return For each key, the keys from the same set that depend on it
+     */
+    static Map<Key<?>, Set<Key<?>>> dependents(Injector injector, Set<Key<?>> keys) {
+        Map<Key<?>, Set<Key<?>>> graph = new HashMap<>();
+        for (Key<?> key : keys) {
+            graph.put(key, new LinkedHashSet<>());
+        }
+        dependencies(injector, keys).forEach((key, dependencies) -> {
+            for (Key<?> dependency : dependencies) {
+                graph.get(dependency).add(key);
+            }
+        });
+        return graph;
+    }
+
+    private static void collectDependencies(Injector injector, Key<?> key, Set<Key<?>> keys,
+                                            Set<Key<?>> visited, Set<Key<?>> dependencies) {
+        Binding<?> binding = injector.getExistingBinding(key);
+        if (!(binding instanceof HasDependencies)) {
+            return;
+        }
+
+        for (Dependency<?> dependency : ((HasDependencies) binding).getDependencies()) {
+            Key<?> dependencyKey = dependency.getKey();
+            if (isProvider(dependencyKey) || !visited.add(dependencyKey)) {
+                continue;
+            }
+            if (keys.contains(dependencyKey)) {
+                dependencies.add(dependencyKey);
+            } else {
+                collectDependencies(injector, dependencyKey, keys, visited, dependencies);
+            }
+        }
+    }
+
+    /**
+     * Provider injection doesn't instantiate the provided type so it doesn't impose any ordering
+     */
+    private static boolean isProvider(Key<?> key) {
+        Class<?> rawType = key.getTypeLiteral().getRawType();
+        return rawType == com.google.inject.Provider.class || rawType == javax.inject.Provider.class;
+    }
+}
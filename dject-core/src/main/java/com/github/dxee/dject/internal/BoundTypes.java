@@ -0,0 +1,70 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Binding;
+import com.google.inject.spi.ConstructorBinding;
+import com.google.inject.spi.DefaultBindingTargetVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.InstanceBinding;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.UntargettedBinding;
+
+import java.lang.reflect.Modifier;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Utility for finding the concrete classes that bindings will instantiate.  Types provided by
+ * providers are not known until provisioned and are left out, as are classes of the JDK.
+ */
+public final class BoundTypes {
+    private static final DefaultBindingTargetVisitor<Object, Class<?>> TARGET_VISITOR =
+            new DefaultBindingTargetVisitor<Object, Class<?>>() {
+                @Override
+                public Class<?> visit(UntargettedBinding<?> binding) {
+                    return binding.getKey().getTypeLiteral().getRawType();
+                }
+
+                @Override
+                public Class<?> visit(LinkedKeyBinding<?> binding) {
+                    return binding.getLinkedKey().getTypeLiteral().getRawType();
+                }
+
+                @Override
+                public Class<?> visit(ConstructorBinding<?> binding) {
+                    return binding.getConstructor().getDeclaringType().getRawType();
+                }
+
+                @Override
+                public Class<?> visit(InstanceBinding<?> binding) {
+                    return binding.getInstance().getClass();
+                }
+            };
+
+    private BoundTypes() {
+    }
+
+    /**
+     * @return Concrete classes bound by the elements in the order of the elements
+     */
+    public static Set<Class<?>> of(Iterable<? extends Element> elements) {
+        Set<Class<?>> types = new LinkedHashSet<>();
+        for (Element element : elements) {
+            if (element instanceof Binding) {
+                Class<?> type = ((Binding<?>) element).acceptTargetVisitor(TARGET_VISITOR);
+                if (type != null && isConcrete(type)) {
+                    types.add(type);
+                }
+            }
+        }
+        return Collections.unmodifiableSet(types);
+    }
+
+    private static boolean isConcrete(Class<?> type) {
+        return !type.isInterface()
+                && !type.isPrimitive()
+                && !type.isArray()
+                && !Modifier.isAbstract(type.getModifiers())
+                && type.getClassLoader() != null;
+    }
+}
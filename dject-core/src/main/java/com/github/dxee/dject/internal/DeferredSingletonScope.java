@@ -0,0 +1,83 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Singleton scope that Guice does not know to be a singleton.  Bindings in this scope
+ * behave exactly like {@link Scopes#SINGLETON} but are never instantiated eagerly while
+ * the injector is created, which leaves it to Dject to decide when they get built.
+ * <p>
+ * Every key scoped with this scope is recorded so that it can be instantiated later on, as is
+ * every key that has since been instantiated.
+ *
+ * @see SingletonRescoper
+ */
+public final class DeferredSingletonScope implements Scope {
+    private final String name;
+    private final Set<Key<?>> keys = ConcurrentHashMap.newKeySet();
+    private final Set<Key<?>> materializedKeys = ConcurrentHashMap.newKeySet();
+
+    public DeferredSingletonScope(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+        keys.add(key);
+        final Provider<T> singleton = Scopes.SINGLETON.scope(key, unscoped);
+        return new Provider<T>() {
+            private volatile boolean materialized;
+
+            @Override
+            public T get() {
+                T instance = singleton.get();
+                if (!materialized) {
+                    materialized = true;
+                    materializedKeys.add(key);
+                }
+                return instance;
+            }
+
+            @Override
+            public String toString() {
+                return singleton.toString();
+            }
+        };
+    }
+
+    /**
+     * @return All keys that have been scoped with this scope
+     */
+    public Set<Key<?>> getKeys() {
+        return Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * @return All keys scoped with this scope that have been instantiated
+     */
+    public Set<Key<?>> getMaterializedKeys() {
+        return Collections.unmodifiableSet(materializedKeys);
+    }
+
+    /**
+     * @return All keys scoped with this scope that haven't been instantiated yet
+     */
+    public Set<Key<?>> getUnmaterializedKeys() {
+        Set<Key<?>> unmaterialized = new LinkedHashSet<>(keys);
+        unmaterialized.removeAll(materializedKeys);
+        return unmaterialized;
+    }
+
+    @Override
+    public String toString() {
+        return "DeferredSingletonScope[" + name + "]";
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.spi.ConcurrentElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.ElementVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+/**
+ * Single traversal of a list of elements on behalf of several {@link ElementVisitor}s.
+ * <p>
+ * Visitors are called serially on the calling thread, unless the element list is large and every
+ * visitor implements {@link ConcurrentElementVisitor}, in which case it is split into chunks that
+ * are visited concurrently.  Consumers are always called on the calling thread, one visitor after
+ * another, with the results of each visitor in element order.
+ */
+public final class ElementTraversal {
+    static final int PARALLEL_THRESHOLD = 4096;
+    static final int CHUNK_SIZE = 1024;
+
+    private final List<Visit<?>> visits = new ArrayList<>();
+
+    private static final class Visit<T> {
+        private final ElementVisitor<T> visitor;
+        private final Consumer<T> consumer;
+
+        private Visit(ElementVisitor<T> visitor, Consumer<T> consumer) {
+            this.visitor = visitor;
+            this.consumer = consumer;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void accept(Object result) {
+            consumer.accept((T) result);
+        }
+    }
+
+    /**
+     * Add a visitor to the next traversal.  'null' results of the visitor are not passed to the consumer.
+     */
+    public <T> void add(ElementVisitor<T> visitor, Consumer<T> consumer) {
+        visits.add(new Visit<>(visitor, consumer));
+    }
+
+    public boolean isEmpty() {
+        return visits.isEmpty();
+    }
+
+    /**
+     * Visit all elements with all added visitors, which are removed once the traversal starts
+     *
+     * @param elements elements
+     */
+    public void traverse(List<? extends Element> elements) {
+        if (visits.isEmpty()) {
+            return;
+        }
+        List<Visit<?>> pending = new ArrayList<>(visits);
+        visits.clear();
+
+        Object[][] results = new Object[pending.size()][elements.size()];
+        int chunks = (elements.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        IntStream range = IntStream.range(0, chunks);
+        if (elements.size() >= PARALLEL_THRESHOLD
+                && pending.stream().allMatch(visit -> visit.visitor instanceof ConcurrentElementVisitor)) {
+            range = range.parallel();
+        }
+        range.forEach(chunk -> visitChunk(pending, elements, chunk * CHUNK_SIZE,
+                Math.min(elements.size(), (chunk + 1) * CHUNK_SIZE), results));
+
+        for (int i = 0; i < pending.size(); i++) {
+            for (Object result : results[i]) {
+                if (result != null) {
+                    pending.get(i).accept(result);
+                }
+            }
+        }
+    }
+
+    private static void visitChunk(List<Visit<?>> pending, List<? extends Element> elements, int from, int to,
+                                   Object[][] results) {
+        for (int index = from; index < to; index++) {
+            Element element = elements.get(index);
+            for (int i = 0; i < pending.size(); i++) {
+                results[i][index] = element.acceptVisitor(pending.get(i).visitor);
+            }
+        }
+    }
+}
@@ -1,28 +1,57 @@
 package com.github.dxee.dject.internal;
 
 import com.github.dxee.dject.lifecycle.LifecycleAction;
+import com.github.dxee.dject.trace.FlightRecorder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.annotation.Annotation;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
 import java.lang.invoke.MethodHandle;
 import java.lang.invoke.MethodHandles;
 import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.function.Consumer;
 
 public class JSR250LifecycleAction implements LifecycleAction {
     private static final Lookup METHOD_HANDLE_LOOKUP = MethodHandles.lookup();
+    // MethodHandles.privateLookupIn() is only available as of Java 9
+    private static final Method PRIVATE_LOOKUP_IN = findPrivateLookupIn();
+    private static final FlightRecorder FLIGHT_RECORDER = FlightRecorder.get();
 
     public enum ValidationMode {
         STRICT, LAX
     }
 
+    /**
+     * Ways of invoking the lifecycle method, from fastest to slowest.  The fastest strategy
+     * that is accessible for the method is used.
+     */
+    public enum InvocationStrategy {
+        /**
+         * Invoker class generated through LambdaMetafactory which the JIT can inline
+         */
+        LAMBDA,
+        /**
+         * Invocation through a non-constant MethodHandle
+         */
+        METHOD_HANDLE,
+        /**
+         * Reflective invocation through Method.invoke()
+         */
+        REFLECTION
+    }
+
     private static final Logger LOGGER = LoggerFactory.getLogger(JSR250LifecycleAction.class);
     private final Method method;
     private final String description;
-    private MethodHandle mh;
+    private final String phase;
+    private final InvocationStrategy invocationStrategy;
+    private final Consumer<Object> invoker;
 
     public JSR250LifecycleAction(Class<? extends Annotation> annotationClass, Method method) {
         this(annotationClass, method, ValidationMode.STRICT);
@@ -30,18 +59,29 @@ public class JSR250LifecycleAction implements LifecycleAction {
 
     public JSR250LifecycleAction(Class<? extends Annotation> annotationClass, Method method,
                                  ValidationMode validationMode) {
+        this(annotationClass, method, validationMode, InvocationStrategy.LAMBDA);
+    }
+
+    JSR250LifecycleAction(Class<? extends Annotation> annotationClass, Method method,
+                          ValidationMode validationMode, InvocationStrategy preferredStrategy) {
         validateAnnotationUsage(annotationClass, method, validationMode);
 
         if (!method.isAccessible()) {
             method.setAccessible(true);
         }
         this.method = method;
-        try {
-            this.mh = METHOD_HANDLE_LOOKUP.unreflect(method);
-        } catch (IllegalAccessException e) {
-            // that's ok we'll use reflected method.invoke()
 
+        InvocationStrategy strategy = preferredStrategy;
+        Consumer<Object> invoker = null;
+        while (invoker == null) {
+            invoker = createInvoker(strategy);
+            if (invoker == null) {
+                strategy = InvocationStrategy.values()[strategy.ordinal() + 1];
+            }
         }
+        this.invocationStrategy = strategy;
+        this.invoker = invoker;
+        this.phase = annotationClass.getSimpleName();
         this.description = String.format("%s@%d[%s.%s()]", annotationClass.getSimpleName(),
                 System.identityHashCode(this), method.getDeclaringClass().getSimpleName(), method.getName());
     }
@@ -76,38 +116,135 @@ public class JSR250LifecycleAction implements LifecycleAction {
         }
     }
 
-    @Override
-    public void call(Object obj) throws InvocationTargetException {
-        LOGGER.debug("calling action {} on instance {}", description, obj);
-        if (mh != null) {
-            try {
-                mh.invoke(obj);
-            } catch (Throwable throwable) {
-                if (throwable instanceof RuntimeException) {
-                    throw (RuntimeException) throwable;
-                } else if (throwable instanceof Error) {
-                    throw (Error) throwable;
-                }
-                throw new InvocationTargetException(throwable, "invoke-dynamic");
+    /**
+     * @return Invoker for the strategy or null if the method isn't accessible through it
+     */
+    private Consumer<Object> createInvoker(InvocationStrategy strategy) {
+        switch (strategy) {
+            case LAMBDA:
+                return createLambdaInvoker();
+            case METHOD_HANDLE:
+                return createMethodHandleInvoker();
+            case REFLECTION:
+                return this::invokeReflectively;
+            default:
+                throw new IllegalArgumentException("Unknown invocation strategy " + strategy);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Consumer<Object> createLambdaInvoker() {
+        Class<?> declaringClass = method.getDeclaringClass();
+        try {
+            Lookup lookup = lookupFor(declaringClass);
+            if (lookup == null) {
+                return null;
             }
-        } else {
+            CallSite site = LambdaMetafactory.metafactory(
+                    lookup,
+                    "accept",
+                    MethodType.methodType(Consumer.class),
+                    MethodType.methodType(void.class, Object.class),
+                    lookup.unreflect(method),
+                    MethodType.methodType(void.class, declaringClass));
+            return (Consumer<Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            LOGGER.debug("Unable to generate invoker for {}, falling back to method handle", method, t);
+            return null;
+        }
+    }
+
+    private Consumer<Object> createMethodHandleInvoker() {
+        final MethodHandle mh;
+        try {
+            mh = METHOD_HANDLE_LOOKUP.unreflect(method)
+                    .asType(MethodType.methodType(void.class, Object.class));
+        } catch (IllegalAccessException e) {
+            // that's ok we'll use reflected method.invoke()
+            return null;
+        }
+        return obj -> {
             try {
-                method.invoke(obj);
-            } catch (InvocationTargetException ite) {
-                Throwable cause = ite.getCause();
-                if (cause instanceof RuntimeException) {
-                    throw (RuntimeException) cause;
-                } else if (cause instanceof Error) {
-                    throw (Error) cause;
-                }
-                throw ite;
-            } catch (Throwable e) {
-                // extremely unlikely, as constructor sets the method to 'accessible'
-                // and validates that it takes no parameters
-                throw new RuntimeException("unexpected exception in method invocation", e);
+                mh.invokeExact(obj);
+            } catch (Throwable t) {
+                throw sneakyThrow(t);
+            }
+        };
+    }
+
+    private void invokeReflectively(Object obj) {
+        try {
+            method.invoke(obj);
+        } catch (InvocationTargetException ite) {
+            throw sneakyThrow(ite.getCause());
+        } catch (Exception e) {
+            // extremely unlikely, as constructor sets the method to 'accessible'
+            // and validates that it takes no parameters
+            throw new RuntimeException("unexpected exception in method invocation", e);
+        }
+    }
+
+    /**
+     * @return Lookup with full access to the declaring class or null if not available
+     */
+    private static Lookup lookupFor(Class<?> declaringClass) throws ReflectiveOperationException {
+        if (PRIVATE_LOOKUP_IN != null) {
+            return (Lookup) PRIVATE_LOOKUP_IN.invoke(null, declaringClass, METHOD_HANDLE_LOOKUP);
+        }
+
+        // The generated class is defined next to this class so it can only see public types
+        // that are visible to this ClassLoader
+        if (!Modifier.isPublic(declaringClass.getModifiers())) {
+            return null;
+        }
+        ClassLoader loader = JSR250LifecycleAction.class.getClassLoader();
+        try {
+            if (Class.forName(declaringClass.getName(), false, loader) != declaringClass) {
+                return null;
             }
+        } catch (ClassNotFoundException e) {
+            return null;
+        }
+        return METHOD_HANDLE_LOOKUP;
+    }
+
+    private static Method findPrivateLookupIn() {
+        try {
+            return MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+        } catch (NoSuchMethodException e) {
+            return null;
         }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E extends Throwable> RuntimeException sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    @Override
+    public void call(Object obj) throws InvocationTargetException {
+        if (LOGGER.isDebugEnabled()) {
+            LOGGER.debug("calling action {} on instance {}", description, obj);
+        }
+        Object event = FLIGHT_RECORDER.beginLifecycleAction();
+        try {
+            invoker.accept(obj);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable throwable) {
+            // checked exceptions are rethrown by the invoker as is
+            throw new InvocationTargetException(throwable, invocationStrategy.name());
+        } finally {
+            FLIGHT_RECORDER.endLifecycleAction(event, description, phase);
+        }
+    }
+
+    public InvocationStrategy getInvocationStrategy() {
+        return invocationStrategy;
+    }
 
+    public Method getMethod() {
+        return method;
     }
 
     @Override
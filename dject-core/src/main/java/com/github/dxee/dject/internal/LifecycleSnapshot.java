@@ -0,0 +1,301 @@
+package com.github.dxee.dject.internal;
+
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * File backed record of the lifecycle methods found for each type, so that following runs can
+ * skip scanning class hierarchies for @PostConstruct and @PreDestroy methods.
+ * <p>
+ * Each entry is stamped with the size and modification time of the class files, or of the jars
+ * containing them, of the type's class hierarchy, interfaces included.  Entries whose stamp no
+ * longer matches the classpath are ignored and recorded again.  The whole snapshot is ignored if
+ * it was recorded with a different configuration, such as another JSR250 validation mode.
+ */
+public final class LifecycleSnapshot {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleSnapshot.class);
+    private static final String HEADER = "dject-lifecycle-snapshot 1 ";
+    private static final String NONE = "-";
+
+    private final Path file;
+    private final String configuration;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    // Jars don't change while running so each is only checked once
+    private final Map<String, String> jarStamps = new ConcurrentHashMap<>();
+    private final AtomicBoolean modified = new AtomicBoolean();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * Reference to a lifecycle method by declaring class and name.  Lifecycle methods never take arguments.
+     */
+    public static final class MethodRef {
+        private final String declaringClass;
+        private final String name;
+        private final String flag;
+
+        public MethodRef(String declaringClass, String name, String flag) {
+            this.declaringClass = declaringClass;
+            this.name = name;
+            this.flag = flag;
+        }
+
+        public String getDeclaringClass() {
+            return declaringClass;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return Feature specific flag such as async, or null
+         */
+        public String getFlag() {
+            return flag;
+        }
+
+        private static MethodRef parse(String value) {
+            int hash = value.indexOf('#');
+            int bang = value.indexOf('!', hash);
+            return new MethodRef(value.substring(0, hash),
+                    bang < 0 ? value.substring(hash + 1) : value.substring(hash + 1, bang),
+                    bang < 0 ? null : value.substring(bang + 1));
+        }
+
+        @Override
+        public String toString() {
+            return declaringClass + "#" + name + (flag != null ? "!" + flag : "");
+        }
+    }
+
+    /**
+     * Lifecycle methods of a type
+     */
+    public static final class Entry {
+        private final String stamp;
+        private final List<MethodRef> postConstruct;
+        private final List<MethodRef> preDestroy;
+
+        private Entry(String stamp, List<MethodRef> postConstruct, List<MethodRef> preDestroy) {
+            this.stamp = stamp;
+            this.postConstruct = Collections.unmodifiableList(postConstruct);
+            this.preDestroy = Collections.unmodifiableList(preDestroy);
+        }
+
+        public List<MethodRef> getPostConstruct() {
+            return postConstruct;
+        }
+
+        public List<MethodRef> getPreDestroy() {
+            return preDestroy;
+        }
+    }
+
+    private LifecycleSnapshot(Path file, String configuration) {
+        this.file = file;
+        this.configuration = configuration;
+    }
+
+    /**
+     * Open the snapshot stored in file.  A missing, unreadable or differently configured snapshot
+     * results in an empty one that will replace the file once saved.
+     *
+     * @param file snapshot file
+     * @param configuration description of the settings affecting which lifecycle methods are found
+     * @return LifecycleSnapshot
+     */
+    public static LifecycleSnapshot open(Path file, String configuration) {
+        LifecycleSnapshot snapshot = new LifecycleSnapshot(file, configuration);
+        if (Files.isRegularFile(file)) {
+            try {
+                snapshot.read();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Ignoring unreadable lifecycle snapshot {}", file, e);
+                snapshot.entries.clear();
+            }
+        }
+        return snapshot;
+    }
+
+    private void read() throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            if (header == null || !header.equals(HEADER + configuration)) {
+                LOGGER.info("Ignoring lifecycle snapshot {} recorded with another configuration", file);
+                return;
+            }
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] fields = line.split("\t", -1);
+                entries.put(fields[0], new Entry(fields[1], parseRefs(fields[2]), parseRefs(fields[3])));
+            }
+        }
+        LOGGER.debug("Read {} types from lifecycle snapshot {}", entries.size(), file);
+    }
+
+    private static List<MethodRef> parseRefs(String field) {
+        List<MethodRef> refs = new ArrayList<>();
+        if (!NONE.equals(field)) {
+            for (String ref : field.split(",")) {
+                refs.add(MethodRef.parse(ref));
+            }
+        }
+        return refs;
+    }
+
+    /**
+     * @return Lifecycle methods of the type or null if the type isn't in the snapshot or has changed
+     */
+    public Entry get(Class<?> type) {
+        Entry entry = entries.get(type.getName());
+        if (entry != null && entry.stamp.equals(stamp(type))) {
+            hits.incrementAndGet();
+            return entry;
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Record the lifecycle methods of a type.  Types loaded from outside of the file system
+     * can't be validated on the next run and are not recorded.
+     */
+    public void put(Class<?> type, List<MethodRef> postConstruct, List<MethodRef> preDestroy) {
+        String stamp = stamp(type);
+        if (stamp != null) {
+            entries.put(type.getName(), new Entry(stamp, new ArrayList<>(postConstruct), new ArrayList<>(preDestroy)));
+            modified.set(true);
+        }
+    }
+
+    /**
+     * Write the snapshot if entries were recorded since it was opened or last saved
+     */
+    public void save() {
+        if (!modified.compareAndSet(true, false)) {
+            return;
+        }
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = Files.createTempFile(parent, file.getFileName().toString(), ".tmp");
+            try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                writer.write(HEADER + configuration);
+                writer.newLine();
+                for (Map.Entry<String, Entry> entry : entries.entrySet()) {
+                    writer.write(entry.getKey() + "\t" + entry.getValue().stamp
+                            + "\t" + formatRefs(entry.getValue().postConstruct)
+                            + "\t" + formatRefs(entry.getValue().preDestroy));
+                    writer.newLine();
+                }
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+            LOGGER.info("Saved {} types to lifecycle snapshot {}", entries.size(), file);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to save lifecycle snapshot {}", file, e);
+        }
+    }
+
+    private static String formatRefs(List<MethodRef> refs) {
+        if (refs.isEmpty()) {
+            return NONE;
+        }
+        StringBuilder sb = new StringBuilder();
+        for (MethodRef ref : refs) {
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(ref);
+        }
+        return sb.toString();
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * @return Stamp of the class files of the type, its superclasses and all interfaces they implement,
+     * null if one of them can't be located
+     */
+    private String stamp(Class<?> type) {
+        // Interfaces may declare default lifecycle methods or annotations, so they are part of the hierarchy
+        Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+            addWithInterfaces(c, hierarchy);
+        }
+
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (Class<?> c : hierarchy) {
+            String stamp = classStamp(c);
+            if (stamp == null) {
+                return null;
+            }
+            hasher.putString(stamp, StandardCharsets.UTF_8).putChar(';');
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void addWithInterfaces(Class<?> type, Set<Class<?>> hierarchy) {
+        if (hierarchy.add(type)) {
+            for (Class<?> iface : type.getInterfaces()) {
+                addWithInterfaces(iface, hierarchy);
+            }
+        }
+    }
+
+    private String classStamp(Class<?> type) {
+        CodeSource codeSource = type.getProtectionDomain().getCodeSource();
+        if (codeSource == null || codeSource.getLocation() == null) {
+            // Classes of the JDK only change with the java version
+            return type.getClassLoader() == null ? System.getProperty("java.version") : null;
+        }
+        URL location = codeSource.getLocation();
+        if (!"file".equals(location.getProtocol())) {
+            return null;
+        }
+
+        File source;
+        try {
+            source = Paths.get(location.toURI()).toFile();
+        } catch (URISyntaxException | RuntimeException e) {
+            return null;
+        }
+        if (source.isDirectory()) {
+            File classFile = new File(source, type.getName().replace('.', '/') + ".class");
+            return classFile.isFile() ? classFile.length() + ":" + classFile.lastModified() : null;
+        }
+        return jarStamps.computeIfAbsent(source.getPath(), path -> source.length() + ":" + source.lastModified());
+    }
+}
@@ -0,0 +1,177 @@
+package com.github.dxee.dject.internal;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs cleanup tasks on a bounded thread pool in reverse dependency order.
+ * <p>
+ * The tasks of a key only run once the tasks of all keys depending on it, according to the
+ * injector's bindings, have completed.  Tasks of the same key run one after another in the
+ * order provided.  Tasks without a key can't be ordered and run last, one after another.
+ */
+final class ParallelShutdownExecutor {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelShutdownExecutor.class);
+    private static final long WORKER_TERMINATION_MILLIS = 1000;
+
+    /**
+     * A cleanup action for an instance of key.  Failures are expected to be handled by the task.
+     */
+    interface ShutdownTask {
+        /**
+         * @return Key of the instance or null if unknown
+         */
+        Key<?> getKey();
+
+        void run(ShutdownBudget budget);
+
+        /**
+         * Report the task as skipped without running it
+         */
+        void skip(ShutdownBudget budget);
+    }
+
+    private final Injector injector;
+    private final int parallelism;
+
+    ParallelShutdownExecutor(Injector injector, int parallelism) {
+        this.injector = injector;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Run all tasks and block until done or until the deadline of the budget has passed.  Tasks
+     * that haven't started by then are reported as skipped.
+     *
+     * @param tasks tasks in the order they would be run serially
+     * @param budget time budget for the tasks
+     */
+    void execute(List<? extends ShutdownTask> tasks, ShutdownBudget budget) {
+        Map<Key<?>, List<ShutdownTask>> tasksByKey = new LinkedHashMap<>();
+        List<ShutdownTask> unordered = new ArrayList<>();
+        for (ShutdownTask task : tasks) {
+            if (task.getKey() == null) {
+                unordered.add(task);
+            } else {
+                tasksByKey.computeIfAbsent(task.getKey(), key -> new ArrayList<>()).add(task);
+            }
+        }
+
+        if (!tasksByKey.isEmpty()) {
+            long startTime = System.nanoTime();
+            Map<Key<?>, Set<Key<?>>> dependents = BindingGraph.dependents(injector, tasksByKey.keySet());
+            ExecutorService executor = Executors.newFixedThreadPool(
+                    Math.min(parallelism, tasksByKey.size()),
+                    new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dject-predestroy-%d").build());
+            // A task is claimed either by the thread running it or by the skipping below, never both
+            Set<ShutdownTask> claimed = ConcurrentHashMap.newKeySet();
+            try {
+                Map<Key<?>, CompletableFuture<Void>> futures = new HashMap<>();
+                for (Key<?> key : tasksByKey.keySet()) {
+                    schedule(key, tasksByKey, dependents, futures, new HashSet<>(), executor, budget, claimed);
+                }
+                CompletableFuture<Void> all =
+                        CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0]));
+                long remaining = budget.remainingNanos();
+                // get() rather than join() so that failures end up below and the remaining tasks still run
+                if (remaining == Long.MAX_VALUE) {
+                    all.get();
+                } else {
+                    all.get(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+                }
+            } catch (TimeoutException e) {
+                LOGGER.warn("Shutdown deadline exceeded, abandoning remaining shutdown actions");
+            } catch (InterruptedException e) {
+                LOGGER.warn("Interrupted, abandoning remaining shutdown actions");
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                // tasks handle their own failures
+                LOGGER.error("Unexpected failure running shutdown actions", e.getCause());
+            } finally {
+                executor.shutdownNow();
+                awaitWorkers(executor);
+            }
+            // Abandoned tasks and those of keys waiting on them never ran
+            for (List<ShutdownTask> keyTasks : tasksByKey.values()) {
+                for (ShutdownTask task : keyTasks) {
+                    if (claimed.add(task)) {
+                        task.skip(budget);
+                    }
+                }
+            }
+            LOGGER.info("Ran shutdown actions of {} keys with parallelism {} in {} ms", tasksByKey.size(),
+                    parallelism, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        }
+
+        unordered.forEach(task -> task.run(budget));
+    }
+
+    /**
+     * Tasks claimed just before the deadline may still be recording their status, which has to be
+     * done before the budget creates the report.  Interrupted workers finish promptly.
+     */
+    private static void awaitWorkers(ExecutorService executor) {
+        try {
+            if (!executor.awaitTermination(WORKER_TERMINATION_MILLIS, TimeUnit.MILLISECONDS)) {
+                LOGGER.warn("Shutdown action threads still running, the shutdown report may be incomplete");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private CompletableFuture<Void> schedule(Key<?> key,
+                                             Map<Key<?>, List<ShutdownTask>> tasksByKey,
+                                             Map<Key<?>, Set<Key<?>>> dependents,
+                                             Map<Key<?>, CompletableFuture<Void>> futures,
+                                             Set<Key<?>> visiting,
+                                             ExecutorService executor,
+                                             ShutdownBudget budget,
+                                             Set<ShutdownTask> claimed) {
+        CompletableFuture<Void> future = futures.get(key);
+        if (future != null) {
+            return future;
+        }
+
+        visiting.add(key);
+        List<CompletableFuture<Void>> predecessors = new ArrayList<>();
+        for (Key<?> dependent : dependents.get(key)) {
+            // Circular dependencies have no well defined order, break the cycle here
+            if (!visiting.contains(dependent)) {
+                predecessors.add(
+                        schedule(dependent, tasksByKey, dependents, futures, visiting, executor, budget, claimed));
+            }
+        }
+        visiting.remove(key);
+
+        List<ShutdownTask> tasks = tasksByKey.get(key);
+        future = CompletableFuture.allOf(predecessors.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> {
+                    for (ShutdownTask task : tasks) {
+                        if (claimed.add(task)) {
+                            task.run(budget);
+                        }
+                    }
+                }, executor);
+        futures.put(key, future);
+        return future;
+    }
+}
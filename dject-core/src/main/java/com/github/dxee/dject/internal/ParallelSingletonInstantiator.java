@@ -0,0 +1,155 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.ProvisionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Instantiates a set of singletons on a bounded fork-join pool.
+ * <p>
+ * The dependency graph between the singletons is derived from the injector's bindings.
+ * A singleton is only built once all singletons it depends on (directly or through
+ * bindings that are not part of the set) have been built, so that lifecycle actions
+ * such as @PostConstruct and the registration of @PreDestroy still follow dependency
+ * order.  Independent subtrees are built concurrently.
+ */
+public final class ParallelSingletonInstantiator {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelSingletonInstantiator.class);
+    private static final AtomicInteger POOL_COUNTER = new AtomicInteger();
+
+    private static final Progress NO_PROGRESS = new Progress() {
+        @Override
+        public boolean beforeInstantiate(Key<?> key) {
+            return true;
+        }
+
+        @Override
+        public void instantiated(Key<?> key) {
+        }
+    };
+
+    /**
+     * Callback observing the instantiation of each key.  Called from the instantiating threads.
+     */
+    public interface Progress {
+        /**
+         * @return false to skip the key, for example because the injector is shutting down
+         */
+        boolean beforeInstantiate(Key<?> key);
+
+        void instantiated(Key<?> key);
+    }
+
+    private final Injector injector;
+    private final int parallelism;
+
+    public ParallelSingletonInstantiator(Injector injector, int parallelism) {
+        this.injector = injector;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    /**
+     * Instantiate all keys and block until done.  The first provisioning failure is rethrown
+     * once all independent singletons have been given a chance to complete.
+     *
+     * @param keys singletons to instantiate
+     */
+    public void instantiate(Collection<Key<?>> keys) {
+        instantiate(keys, NO_PROGRESS);
+    }
+
+    /**
+     * Instantiate all keys reporting each instantiated key to progress and block until done.
+     *
+     * @param keys singletons to instantiate
+     * @param progress progress callback
+     */
+    public void instantiate(Collection<Key<?>> keys, Progress progress) {
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        Map<Key<?>, Set<Key<?>>> graph = BindingGraph.dependencies(injector, new LinkedHashSet<>(keys));
+        ForkJoinPool pool = createPool();
+        try {
+            Map<Key<?>, CompletableFuture<Void>> futures = new HashMap<>();
+            for (Key<?> key : graph.keySet()) {
+                schedule(key, graph, futures, new HashSet<>(), pool, progress);
+            }
+            CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new ProvisionException("Failed to instantiate eager singletons", cause);
+        } finally {
+            pool.shutdown();
+        }
+        LOGGER.info("Instantiated {} eager singletons with parallelism {} in {} ms", graph.size(), parallelism,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+    }
+
+    private ForkJoinPool createPool() {
+        final int poolId = POOL_COUNTER.incrementAndGet();
+        final AtomicInteger threadCounter = new AtomicInteger();
+        return new ForkJoinPool(parallelism, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("dject-eager-singleton-" + poolId + "-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    private CompletableFuture<Void> schedule(final Key<?> key,
+                                             Map<Key<?>, Set<Key<?>>> graph,
+                                             Map<Key<?>, CompletableFuture<Void>> futures,
+                                             Set<Key<?>> visiting,
+                                             ForkJoinPool pool,
+                                             Progress progress) {
+        CompletableFuture<Void> future = futures.get(key);
+        if (future != null) {
+            return future;
+        }
+
+        visiting.add(key);
+        List<CompletableFuture<Void>> dependencies = new ArrayList<>();
+        for (Key<?> dependency : graph.get(key)) {
+            // Circular dependencies are left for Guice to resolve
+            if (!visiting.contains(dependency)) {
+                dependencies.add(schedule(dependency, graph, futures, visiting, pool, progress));
+            }
+        }
+        visiting.remove(key);
+
+        future = CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0]))
+                .thenRunAsync(() -> {
+                    if (progress.beforeInstantiate(key)) {
+                        injector.getInstance(key);
+                        progress.instantiated(key);
+                    }
+                }, pool);
+        futures.put(key, future);
+        return future;
+    }
+}
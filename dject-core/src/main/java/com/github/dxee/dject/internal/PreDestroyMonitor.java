@@ -2,7 +2,8 @@ package com.github.dxee.dject.internal;
 
 import com.github.dxee.dject.lifecycle.LifecycleAction;
 import com.github.dxee.dject.lifecycle.ManagedInstanceAction;
-import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.github.dxee.dject.lifecycle.ShutdownReport;
+import com.github.dxee.dject.trace.FlightRecorder;
 import com.google.inject.*;
 import com.google.inject.spi.BindingScopingVisitor;
 import com.google.inject.util.Providers;
@@ -11,9 +12,6 @@ import org.slf4j.LoggerFactory;
 
 import java.io.PrintStream;
 import java.lang.annotation.Annotation;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
-import java.lang.ref.SoftReference;
 import java.lang.ref.WeakReference;
 import java.text.SimpleDateFormat;
 import java.util.*;
@@ -27,6 +25,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 public class PreDestroyMonitor implements AutoCloseable {
     private static Logger LOGGER = LoggerFactory.getLogger(PreDestroyMonitor.class);
+    private static final FlightRecorder FLIGHT_RECORDER = FlightRecorder.get();
 
     private static class ScopeCleanupMarker {
         static final Key<ScopeCleanupMarker> MARKER_KEY = Key.get(ScopeCleanupMarker.class);
@@ -34,8 +33,17 @@ public class PreDestroyMonitor implements AutoCloseable {
         private final Object id = new Object();
         private final ScopeCleanupAction cleanupAction;
 
-        public ScopeCleanupMarker(ReferenceQueue<ScopeCleanupMarker> markerReferenceQueue) {
-            this.cleanupAction = new ScopeCleanupAction(this, markerReferenceQueue);
+        public ScopeCleanupMarker(Map<Object, ScopeCleanupAction> scopedCleanupActions, String scope) {
+            this.cleanupAction = new ScopeCleanupAction(this, scopedCleanupActions, scope);
+        }
+
+        /**
+         * Run the cleanup actions of the scope now instead of once the marker is unreferenced
+         *
+         * @return False if the cleanup actions already ran
+         */
+        boolean close() {
+            return cleanupAction.cleanup();
         }
 
         Object getId() {
@@ -48,20 +56,20 @@ public class PreDestroyMonitor implements AutoCloseable {
     }
 
     static final class ScopeCleaner implements Provider<ScopeCleanupMarker> {
-        ConcurrentMap<Object, ScopeCleanupAction> scopedCleanupActions = new ConcurrentHashMap<>(16384);
-        ReferenceQueue<ScopeCleanupMarker> markerReferenceQueue = new ReferenceQueue<>();
-        final ExecutorService reqQueueExecutor = Executors.newSingleThreadExecutor(
-                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("predestroy-monitor-%d").build());
+        // Cleanup actions are strongly referenced until run, unreferenced markers are
+        // processed by the shared ReferenceCleaner
+        ConcurrentMap<Object, ScopeCleanupAction> scopedCleanupActions = new ConcurrentHashMap<>();
         final AtomicBoolean running = new AtomicBoolean(true);
-        final ScopeCleanupMarker singletonMarker = get();
-
-        {
-            this.reqQueueExecutor.submit(new ScopedCleanupWorker());
-        }
+        final ScopeCleanupMarker singletonMarker = create("Singleton");
+        volatile ParallelShutdownExecutor shutdownExecutor;
 
         @Override
         public ScopeCleanupMarker get() {
-            ScopeCleanupMarker marker = new ScopeCleanupMarker(markerReferenceQueue);
+            return create("Scoped");
+        }
+
+        private ScopeCleanupMarker create(String scope) {
+            ScopeCleanupMarker marker = new ScopeCleanupMarker(scopedCleanupActions, scope);
             scopedCleanupActions.put(marker.getId(), marker.getCleanupAction());
             return marker;
         }
@@ -71,65 +79,69 @@ public class PreDestroyMonitor implements AutoCloseable {
         }
 
         public boolean close() throws Exception {
+            return close(ShutdownBudget.UNBOUNDED);
+        }
+
+        boolean close(ShutdownBudget budget) throws Exception {
             boolean rv = running.compareAndSet(true, false);
             if (rv) {
-                // executor to stop process any remaining scoped cleanup actions
-                reqQueueExecutor.shutdown();
                 List<ScopeCleanupAction> values = new ArrayList<>(scopedCleanupActions.values());
                 scopedCleanupActions.clear();
                 Collections.sort(values);
-                for (Callable<Void> actions : values) {
-                    actions.call();
-                }
-
-                // make sure executor thread really ended
-                if (!reqQueueExecutor.awaitTermination(90, TimeUnit.SECONDS)) {
-                    LOGGER.error("internal executor still active; shutting down now");
-                    reqQueueExecutor.shutdownNow();
+                for (ScopeCleanupAction actions : values) {
+                    actions.call(shutdownExecutor, budget);
                 }
-                markerReferenceQueue = null;
             }
             return rv;
         }
-
-        /**
-         * Processes unreferenced markers from the referenceQueue, until the 'running' flag is false or interrupted
-         */
-        final class ScopedCleanupWorker implements Runnable {
-            public void run() {
-                try {
-                    while (running.get()) {
-                        Reference<? extends ScopeCleanupMarker> ref = markerReferenceQueue.remove(1000);
-                        if (ref != null && ref instanceof ScopeCleanupAction) {
-                            Object markerKey = ((ScopeCleanupAction) ref).getId();
-                            ScopeCleanupAction cleanupAction = scopedCleanupActions.remove(markerKey);
-                            if (cleanupAction != null) {
-                                cleanupAction.call();
-                            }
-                        }
-                    }
-                    LOGGER.info("PreDestroyMonitor.ScopedCleanupWorker is exiting");
-                } catch (InterruptedException e) {
-                    LOGGER.info("PreDestroyMonitor.ScopedCleanupWorker is exiting due to thread interrupt");
-                    Thread.currentThread().interrupt(); // clear interrupted status
-                }
-            }
-        }
-
     }
 
-    private Deque<Callable<Void>> cleanupActions = new ConcurrentLinkedDeque<>();
+    private final UnscopedCleanupRegistry unscopedCleanupActions = new UnscopedCleanupRegistry();
     private ScopeCleaner scopeCleaner = new ScopeCleaner();
 
     private Map<Class<? extends Annotation>, Scope> scopeBindings;
+    private long shutdownTimeoutMillis;
+    private long actionTimeoutMillis;
+    private volatile ShutdownReport shutdownReport;
 
     public PreDestroyMonitor(Map<Class<? extends Annotation>, Scope> scopeBindings) {
         this.scopeBindings = new HashMap<>(scopeBindings);
     }
 
+    /**
+     * Create a monitor that runs the cleanup actions of scoped instances at shutdown on up to
+     * shutdownParallelism threads, in reverse dependency order according to the injector's bindings.
+     *
+     * @param injector injector providing the dependencies between bindings
+     * @param shutdownParallelism maximum number of cleanup actions run concurrently, 1 to run all serially
+     */
+    public PreDestroyMonitor(Injector injector, int shutdownParallelism) {
+        this(injector, shutdownParallelism, 0, 0);
+    }
+
+    /**
+     * Create a monitor with a time budget for closing it.  Cleanup actions exceeding actionTimeoutMillis
+     * are abandoned, and actions that haven't started when shutdownTimeoutMillis has passed are skipped.
+     *
+     * @param injector injector providing the dependencies between bindings
+     * @param shutdownParallelism maximum number of cleanup actions run concurrently, 1 to run all serially
+     * @param shutdownTimeoutMillis total time for closing the monitor, 0 for no limit
+     * @param actionTimeoutMillis time for each cleanup action, 0 for no limit
+     */
+    public PreDestroyMonitor(Injector injector, int shutdownParallelism, long shutdownTimeoutMillis,
+                             long actionTimeoutMillis) {
+        this(injector.getScopeBindings());
+        if (shutdownParallelism > 1) {
+            scopeCleaner.shutdownExecutor = new ParallelShutdownExecutor(injector, shutdownParallelism);
+        }
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.actionTimeoutMillis = actionTimeoutMillis;
+    }
+
     public <T> boolean register(T destroyableInstance, Binding<T> binding, Iterable<LifecycleAction> action) {
         return scopeCleaner.isRunning() ? binding.acceptScopingVisitor(
-                new ManagedInstanceScopingVisitor(destroyableInstance, binding.getSource(), action)) : false;
+                new ManagedInstanceScopingVisitor(destroyableInstance, binding.getKey(), binding.getSource(), action))
+                : false;
     }
 
     /*
@@ -137,7 +149,8 @@ public class PreDestroyMonitor implements AutoCloseable {
      */
     public <T> boolean register(T destroyableInstance, Object context, Iterable<LifecycleAction> action) {
         return scopeCleaner.isRunning()
-                ? new ManagedInstanceScopingVisitor(destroyableInstance, context, action).visitEagerSingleton() : false;
+                ? new ManagedInstanceScopingVisitor(destroyableInstance, null, context, action).visitEagerSingleton()
+                : false;
     }
 
     /**
@@ -156,24 +169,101 @@ public class PreDestroyMonitor implements AutoCloseable {
      */
     @Override
     public void close() throws Exception {
-        if (scopeCleaner.close()) { // executor thread to exit processing loop
+        ShutdownBudget budget = new ShutdownBudget(shutdownTimeoutMillis, actionTimeoutMillis);
+        if (scopeCleaner.close(budget)) { // executor thread to exit processing loop
             LOGGER.info("closing PreDestroyMonitor...");
 
-            for (Callable<Void> action : cleanupActions) {
+            for (Callable<Void> action : unscopedCleanupActions.drain()) {
                 try {
-                    action.call();
+                    budget.run(null, action);
                 } catch (Exception e) {
                     logActionCallError("PreDestroy call failed for " + action, e);
                 }
             }
-            cleanupActions.clear();
             scopeBindings.clear();
             scopeBindings = Collections.emptyMap();
+
+            ShutdownReport report = budget.complete();
+            shutdownReport = report;
+            if (report.isClean()) {
+                LOGGER.info("closed PreDestroyMonitor {}", report);
+            } else {
+                LOGGER.warn("closed PreDestroyMonitor {}", report);
+                for (ShutdownReport.Entry entry : report.getEntries()) {
+                    if (entry.getStatus() != ShutdownReport.Status.COMPLETED) {
+                        LOGGER.warn("  {}", entry);
+                    }
+                }
+            }
         } else {
             LOGGER.warn("PreDestroyMonitor.close() invoked but instance is not running");
         }
     }
 
+    /**
+     * Run the cleanup actions of all managed instances of a scope instance.  The scope instance is either
+     * the storage of the scope, a Map or Iterable holding the scoped objects, or a single scoped object.
+     * Scopes that can't be closed explicitly are still cleaned up once their storage is garbage collected.
+     *
+     * @param scopeInstance storage of the scope instance
+     * @return True if cleanup actions of the scope instance were invoked
+     */
+    public static boolean closeScope(Object scopeInstance) {
+        final Iterable<?> candidates;
+        if (scopeInstance instanceof Map) {
+            candidates = new ArrayList<>(((Map<?, ?>) scopeInstance).values());
+        } else if (scopeInstance instanceof Iterable) {
+            List<Object> elements = new ArrayList<>();
+            ((Iterable<?>) scopeInstance).forEach(elements::add);
+            candidates = elements;
+        } else {
+            candidates = Collections.singletonList(scopeInstance);
+        }
+
+        boolean closed = false;
+        for (Object candidate : candidates) {
+            if (candidate instanceof ScopeCleanupMarker && ((ScopeCleanupMarker) candidate).close()) {
+                closed = true;
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * @return Number of singleton instances currently tracked for cleanup at shutdown
+     */
+    public int getSingletonInstanceCount() {
+        return scopeCleaner.singletonMarker.getCleanupAction().size();
+    }
+
+    /**
+     * @return Number of instances of other scopes currently tracked for cleanup when their scope ends
+     */
+    public int getScopedInstanceCount() {
+        int count = 0;
+        for (ScopeCleanupAction action : scopeCleaner.scopedCleanupActions.values()) {
+            if (action.getId() != scopeCleaner.singletonMarker.getId()) {
+                count += action.size();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of unscoped instances currently tracked for cleanup at shutdown
+     */
+    public int getUnscopedInstanceCount() {
+        unscopedCleanupActions.purge();
+        return unscopedCleanupActions.size();
+    }
+
+    /**
+     * @return Report of the cleanup actions run by close() or null if not closed yet
+     */
+    public ShutdownReport getShutdownReport() {
+        return shutdownReport;
+    }
+
     private static void logActionCallError(String str, Exception e) {
         try {
             LOGGER.error(str, e);
@@ -204,17 +294,19 @@ public class PreDestroyMonitor implements AutoCloseable {
 
     /**
      * visits bindingScope of managed instance to set up an appropriate strategy for cleanup, adding actions to either
-     * the scopedCleanupActions map or cleanupActions list. Returns true if cleanup actions were added, false if no
+     * the scopedCleanupActions map or unscopedCleanupActions registry. Returns true if cleanup actions were added, false if no
      * cleanup strategy was selected.
      */
     private final class ManagedInstanceScopingVisitor implements BindingScopingVisitor<Boolean> {
         private final Object injectee;
+        private final Key<?> key;
         private final Object context;
         private final Iterable<LifecycleAction> lifecycleActions;
 
-        private ManagedInstanceScopingVisitor(Object injectee, Object context,
+        private ManagedInstanceScopingVisitor(Object injectee, Key<?> key, Object context,
                                               Iterable<LifecycleAction> lifecycleActions) {
             this.injectee = injectee;
+            this.key = key;
             this.context = context;
             this.lifecycleActions = lifecycleActions;
         }
@@ -236,13 +328,14 @@ public class PreDestroyMonitor implements AutoCloseable {
         @Override
         public Boolean visitScope(Scope scope) {
             final Provider<ScopeCleanupMarker> scopedMarkerProvider;
-            if (scope.equals(Scopes.SINGLETON)) {
+            if (scope.equals(Scopes.SINGLETON) || scope instanceof DeferredSingletonScope) {
                 scopedMarkerProvider = Providers.of(scopeCleaner.singletonMarker);
             } else {
                 scopedMarkerProvider = scope.scope(ScopeCleanupMarker.MARKER_KEY, scopeCleaner);
             }
             ScopeCleanupMarker marker = scopedMarkerProvider.get();
-            marker.getCleanupAction().add(scopedMarkerProvider, new ManagedInstanceAction(injectee, lifecycleActions));
+            marker.getCleanupAction().add(scopedMarkerProvider, key,
+                    new ManagedInstanceAction(injectee, lifecycleActions));
             return true;
         }
 
@@ -264,58 +357,137 @@ public class PreDestroyMonitor implements AutoCloseable {
         }
 
         /*
-         * add a soft-reference ManagedInstanceAction to cleanupActions deque. Cleanup triggered only at injector
-         * shutdown if referent has not yet been collected.
+         * add a softly referenced ManagedInstanceAction to the unscopedCleanupActions registry. Cleanup triggered
+         * only at injector shutdown if referent has not yet been collected.
          *
          */
         @Override
         public Boolean visitNoScoping() {
-            LOGGER.debug(injectee.getClass().getName() + " will injected with no scope");
-            cleanupActions.addFirst(
-                    new ManagedInstanceAction(new SoftReference<Object>(injectee), context, lifecycleActions)
-            );
+            LOGGER.debug("{} will injected with no scope", injectee.getClass().getName());
+            unscopedCleanupActions.register(injectee, context, lifecycleActions);
             return true;
         }
     }
 
+    /**
+     * Cleanup action of a managed instance, keeping the scope marker of the instance strongly referenced
+     */
+    private static final class CleanupDelegate implements ParallelShutdownExecutor.ShutdownTask {
+        private final Callable<Void> action;
+        private final Provider<ScopeCleanupMarker> scopeProvider;
+        private final Key<?> key;
+
+        CleanupDelegate(Callable<Void> action, Provider<ScopeCleanupMarker> scopeProvider, Key<?> key) {
+            this.action = action;
+            this.scopeProvider = scopeProvider;
+            this.key = key;
+        }
+
+        @Override
+        public Key<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public void run(ShutdownBudget budget) {
+            try {
+                budget.run(key, action);
+            } catch (Exception e) {
+                logActionCallError("PreDestroy call failed for " + action, e);
+            }
+        }
+
+        @Override
+        public void skip(ShutdownBudget budget) {
+            budget.skip(key, action);
+        }
+
+        @Override
+        public String toString() {
+            return "CleanupDelegate{key=" + key + ", scope=" + scopeProvider + ", action=" + action + "}";
+        }
+    }
+
     /**
      * Runnable that weakly references a scopeCleanupMarker and strongly references a list of delegate runnables. When
      * the marker is unreferenced, delegates will be invoked in the reverse order of addition.
      */
     private static final class ScopeCleanupAction extends WeakReference<ScopeCleanupMarker>
-            implements Callable<Void>, Comparable<ScopeCleanupAction> {
+            implements Callable<Void>, Comparable<ScopeCleanupAction>, ReferenceCleaner.BlockingCleanable {
         private static volatile long instanceCounter = 0;
         private final Object id;
         private final long ordinal;
-        private Deque<Object[]> delegates = new ConcurrentLinkedDeque<>();
+        private final Map<Object, ScopeCleanupAction> scopedCleanupActions;
+        private final String scope;
+        private Deque<CleanupDelegate> delegates = new ConcurrentLinkedDeque<>();
         private final AtomicBoolean complete = new AtomicBoolean(false);
 
-        public ScopeCleanupAction(ScopeCleanupMarker marker, ReferenceQueue<ScopeCleanupMarker> refQueue) {
-            super(marker, refQueue);
+        public ScopeCleanupAction(ScopeCleanupMarker marker, Map<Object, ScopeCleanupAction> scopedCleanupActions,
+                                  String scope) {
+            super(marker, ReferenceCleaner.queue());
             this.id = marker.getId();
             this.ordinal = instanceCounter++;
+            this.scopedCleanupActions = scopedCleanupActions;
+            this.scope = scope;
         }
 
         public Object getId() {
             return id;
         }
 
-        public void add(Provider<ScopeCleanupMarker> scopeProvider, Callable<Void> action) {
+        /**
+         * Invoked by the ReferenceCleaner once the marker is unreferenced, on a thread of its own
+         * as the delegates run user @PreDestroy methods
+         */
+        @Override
+        public void clean() {
+            cleanup();
+        }
+
+        /**
+         * Invoke the delegates unless the action has already been removed from its ScopeCleaner
+         *
+         * @return False if the delegates have already been invoked
+         */
+        boolean cleanup() {
+            if (scopedCleanupActions.remove(id) != null) {
+                call();
+                return true;
+            }
+            return false;
+        }
+
+        int size() {
+            return delegates.size();
+        }
+
+        public void add(Provider<ScopeCleanupMarker> scopeProvider, Key<?> key, Callable<Void> action) {
             if (!complete.get()) {
-                delegates.addFirst(new Object[]{action, scopeProvider}); // add first
+                delegates.addFirst(new CleanupDelegate(action, scopeProvider, key)); // add first
             }
         }
 
-        @SuppressWarnings("unchecked")
         @Override
         public Void call() {
+            return call(null, ShutdownBudget.UNBOUNDED);
+        }
+
+        /**
+         * @param executor executor running the delegates concurrently or null to run them serially
+         * @param budget time budget for the delegates
+         */
+        Void call(ParallelShutdownExecutor executor, ShutdownBudget budget) {
             if (complete.compareAndSet(false, true) && delegates != null) {
-                for (Object[] r : delegates) {
-                    try {
-                        ((Callable<Void>) r[0]).call();
-                    } catch (Exception e) {
-                        logActionCallError("PreDestroy call failed for " + r, e);
+                Object event = FLIGHT_RECORDER.beginScopeCleanup();
+                int actions = event == null ? 0 : delegates.size();
+                try {
+                    if (executor != null) {
+                        executor.execute(new ArrayList<>(delegates), budget);
+                    } else {
+                        delegates.forEach(delegate -> delegate.run(budget));
                     }
+                } finally {
+                    FLIGHT_RECORDER.endScopeCleanup(event, scope, actions);
                 }
                 delegates.clear();
                 clear();
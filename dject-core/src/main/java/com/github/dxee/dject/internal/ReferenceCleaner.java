@@ -0,0 +1,90 @@
+package com.github.dxee.dject.internal;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Reference processor shared by all injectors, similar to java.lang.ref.Cleaner which isn't
+ * available on Java 8.  References registered with {@link #queue()} that implement
+ * {@link Cleanable} are cleaned on a single daemon thread, started on first use, once their
+ * referent has been garbage collected.
+ * <p>
+ * A reference is only enqueued while it is itself reachable, so its owner must keep it
+ * referenced for as long as it is interested in the referent.  {@link Cleanable}s run one
+ * at a time on the thread shared by all injectors and must return quickly.  Cleanup that
+ * runs user code, which may be slow or block, implements {@link BlockingCleanable} and is
+ * handed off to a pool of daemon threads so it can't hold up the cleanup of other injectors.
+ */
+public final class ReferenceCleaner {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReferenceCleaner.class);
+
+    /**
+     * Reference with an action to run once its referent has been collected
+     */
+    public interface Cleanable {
+        void clean();
+    }
+
+    /**
+     * Cleanable that may block, ie. because it invokes @PreDestroy methods.  Each one is run
+     * on a thread of its own, failures are logged.
+     */
+    public interface BlockingCleanable extends Cleanable {
+    }
+
+    private ReferenceCleaner() {
+    }
+
+    private static final class Holder {
+        static final ReferenceQueue<Object> QUEUE = new ReferenceQueue<>();
+        // Threads are only kept while blocking cleanups are running
+        static final ExecutorService BLOCKING_CLEANUPS = Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                .setDaemon(true)
+                .setNameFormat("dject-reference-cleanup-%d")
+                .build());
+
+        static {
+            Thread thread = new Thread(Holder::processReferences, "dject-reference-cleaner");
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        private static void processReferences() {
+            while (true) {
+                try {
+                    Reference<?> ref = QUEUE.remove();
+                    if (ref instanceof BlockingCleanable) {
+                        BLOCKING_CLEANUPS.execute(() -> clean((Cleanable) ref));
+                    } else if (ref instanceof Cleanable) {
+                        ((Cleanable) ref).clean();
+                    }
+                } catch (InterruptedException e) {
+                    // keep running, the thread is shared by all injectors
+                } catch (Throwable t) {
+                    LOGGER.error("Failed to clean reference", t);
+                }
+            }
+        }
+    }
+
+    private static void clean(Cleanable cleanable) {
+        try {
+            cleanable.clean();
+        } catch (Throwable t) {
+            LOGGER.error("Failed to clean reference", t);
+        }
+    }
+
+    /**
+     * @return Queue to register references implementing {@link Cleanable} with
+     */
+    public static ReferenceQueue<Object> queue() {
+        return Holder.QUEUE;
+    }
+}
@@ -0,0 +1,159 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.lifecycle.ShutdownReport;
+import com.google.common.base.Throwables;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Key;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Time budget for running cleanup actions while shutting down.  The budget consists of a
+ * total deadline and a timeout for each individual action.  Actions exceeding their timeout
+ * are interrupted and abandoned, and actions are skipped once the deadline has passed.
+ * <p>
+ * Actions are only run on a separate thread if the budget is bounded.
+ */
+final class ShutdownBudget {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShutdownBudget.class);
+
+    /**
+     * Budget without any time limits that doesn't keep track of the actions.  Used
+     * for cleanup outside of shutdown, ie. when a scope is closed.
+     */
+    static final ShutdownBudget UNBOUNDED = new ShutdownBudget(0, 0, false);
+
+    private final long startTime = System.nanoTime();
+    private final long deadline;
+    private final long actionTimeoutNanos;
+    private final boolean recording;
+    private final ExecutorService actionExecutor;
+    private final Queue<ShutdownReport.Entry> entries = new ConcurrentLinkedQueue<>();
+
+    /**
+     * @param timeoutMillis total time for all actions, 0 for no limit
+     * @param actionTimeoutMillis time for each action, 0 for no limit
+     */
+    ShutdownBudget(long timeoutMillis, long actionTimeoutMillis) {
+        this(timeoutMillis, actionTimeoutMillis, true);
+    }
+
+    private ShutdownBudget(long timeoutMillis, long actionTimeoutMillis, boolean recording) {
+        this.deadline = timeoutMillis > 0 ? startTime + TimeUnit.MILLISECONDS.toNanos(timeoutMillis) : Long.MAX_VALUE;
+        this.actionTimeoutNanos = actionTimeoutMillis > 0
+                ? TimeUnit.MILLISECONDS.toNanos(actionTimeoutMillis) : Long.MAX_VALUE;
+        this.recording = recording;
+        this.actionExecutor = isBounded()
+                ? Executors.newCachedThreadPool(new ThreadFactoryBuilder()
+                        .setDaemon(true)
+                        .setNameFormat("dject-shutdown-action-%d")
+                        .build())
+                : null;
+    }
+
+    boolean isBounded() {
+        return deadline != Long.MAX_VALUE || actionTimeoutNanos != Long.MAX_VALUE;
+    }
+
+    /**
+     * @return Nanoseconds left until the deadline, Long.MAX_VALUE if there is none
+     */
+    long remainingNanos() {
+        return deadline == Long.MAX_VALUE ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    /**
+     * Run the action within the budget.  Timed out and skipped actions are logged and
+     * reported but otherwise ignored.
+     *
+     * @param key key of the managed instance, may be null
+     * @param action action to run
+     * @throws Exception thrown by the action
+     */
+    void run(Key<?> key, Callable<?> action) throws Exception {
+        long actionStart = System.nanoTime();
+        if (actionExecutor == null) {
+            try {
+                action.call();
+                record(key, action, ShutdownReport.Status.COMPLETED, actionStart);
+            } catch (Exception e) {
+                record(key, action, ShutdownReport.Status.FAILED, actionStart);
+                throw e;
+            }
+            return;
+        }
+
+        long timeout = Math.min(actionTimeoutNanos, remainingNanos());
+        if (timeout <= 0) {
+            LOGGER.warn("Shutdown deadline exceeded, skipping {}", action);
+            record(key, action, ShutdownReport.Status.SKIPPED, actionStart);
+            return;
+        }
+
+        Future<?> future = actionExecutor.submit(action);
+        try {
+            future.get(timeout, TimeUnit.NANOSECONDS);
+            record(key, action, ShutdownReport.Status.COMPLETED, actionStart);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            LOGGER.warn("Abandoning {} after {} ms", action, TimeUnit.NANOSECONDS.toMillis(timeout));
+            record(key, action, ShutdownReport.Status.TIMED_OUT, actionStart);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            record(key, action, ShutdownReport.Status.TIMED_OUT, actionStart);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (remainingNanos() <= 0 && Throwables.getCausalChain(cause).stream()
+                    .anyMatch(InterruptedException.class::isInstance)) {
+                // Interrupted by the release of abandoned actions once the deadline passed
+                LOGGER.warn("Abandoning {} after the shutdown deadline", action);
+                record(key, action, ShutdownReport.Status.TIMED_OUT, actionStart);
+                return;
+            }
+            record(key, action, ShutdownReport.Status.FAILED, actionStart);
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Report the action as skipped without running it, ie. because actions it has to wait for were abandoned
+     */
+    void skip(Key<?> key, Callable<?> action) {
+        LOGGER.warn("Shutdown deadline exceeded, skipping {}", action);
+        record(key, action, ShutdownReport.Status.SKIPPED, System.nanoTime());
+    }
+
+    private void record(Key<?> key, Object action, ShutdownReport.Status status, long actionStart) {
+        if (recording) {
+            entries.add(new ShutdownReport.Entry(key != null ? key.toString() : null, String.valueOf(action),
+                    status, System.nanoTime() - actionStart));
+        }
+    }
+
+    /**
+     * Release the threads of abandoned actions and create the report
+     */
+    ShutdownReport complete() {
+        if (actionExecutor != null) {
+            actionExecutor.shutdownNow();
+        }
+        return new ShutdownReport(new ArrayList<>(entries), System.nanoTime() - startTime);
+    }
+}
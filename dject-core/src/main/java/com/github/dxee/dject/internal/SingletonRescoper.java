@@ -0,0 +1,262 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Binder;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.Module;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.Stage;
+import com.google.inject.spi.BindingScopingVisitor;
+import com.google.inject.spi.ConstructorBinding;
+import com.google.inject.spi.DefaultBindingScopingVisitor;
+import com.google.inject.spi.DefaultBindingTargetVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.Elements;
+import com.google.inject.spi.InjectionPoint;
+import com.google.inject.spi.LinkedKeyBinding;
+import com.google.inject.spi.ProviderInstanceBinding;
+import com.google.inject.spi.ProviderKeyBinding;
+import com.google.inject.spi.UntargettedBinding;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Utility for replaying module elements while moving selected singleton bindings into
+ * another scope, typically a {@link DeferredSingletonScope}.  Only bindings whose target
+ * can be expressed through the binder DSL (untargetted, linked, constructor, provider
+ * instance and provider key bindings) are rewritten; everything else is replayed as is.
+ * <p>
+ * The target of a linked binding that isn't bound itself gets a just-in-time binding from
+ * Guice, scoped by the annotations of its class.  Those targets are treated like untargetted
+ * bindings, and when selected an explicit binding in the new scope is added for them.
+ */
+public final class SingletonRescoper {
+    private SingletonRescoper() {
+    }
+
+    /**
+     * Create a module that replays the elements, binding every binding accepted by the predicate
+     * in the provided scope instead of its original one.
+     *
+     * @param elements elements to replay, usually from {@link com.google.inject.spi.Elements#getElements}
+     * @param predicate selects the bindings to rescope
+     * @param scope the new scope
+     * @return Module
+     */
+    public static Module rescope(final Iterable<? extends Element> elements,
+                                 final Predicate<Binding<?>> predicate,
+                                 final Scope scope) {
+        return Elements.getModule(rescopeElements(elements, predicate, scope));
+    }
+
+    /**
+     * Replace every binding accepted by the predicate with one in the provided scope.  Only the
+     * replaced bindings are recorded again, the other elements are kept as is.
+     *
+     * @param elements elements, usually from {@link com.google.inject.spi.Elements#getElements}
+     * @param predicate selects the bindings to rescope
+     * @param scope the new scope
+     * @return The elements with the selected bindings replaced
+     */
+    public static List<Element> rescopeElements(final Iterable<? extends Element> elements,
+                                                final Predicate<Binding<?>> predicate,
+                                                final Scope scope) {
+        Set<Key<?>> boundKeys = new HashSet<>();
+        for (Element element : elements) {
+            if (element instanceof Binding) {
+                boundKeys.add(((Binding<?>) element).getKey());
+            }
+        }
+
+        List<Binding<?>> selected = new ArrayList<>();
+        Map<Key<?>, Object> implicitTargets = new LinkedHashMap<>();
+        for (Element element : elements) {
+            if (element instanceof LinkedKeyBinding) {
+                Key<?> target = ((LinkedKeyBinding<?>) element).getLinkedKey();
+                if (!boundKeys.contains(target) && isJustInTimeBindable(target)) {
+                    implicitTargets.putIfAbsent(target, element.getSource());
+                }
+            }
+            if (element instanceof Binding && predicate.test((Binding<?>) element)) {
+                selected.add((Binding<?>) element);
+            }
+        }
+
+        Set<Element> rescoped = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Element> replacements = Elements.getElements(binder -> {
+            for (Binding<?> binding : selected) {
+                Boolean result = binding.acceptTargetVisitor(
+                        new RescopingTargetVisitor<>(binder.withSource(binding.getSource()), scope));
+                if (Boolean.TRUE.equals(result)) {
+                    rescoped.add(binding);
+                }
+            }
+            implicitTargets.forEach((target, source) -> {
+                if (predicate.test(untargetted(target))) {
+                    binder.withSource(source).bind(target).in(scope);
+                }
+            });
+        });
+
+        List<Element> result = new ArrayList<>();
+        for (Element element : elements) {
+            if (!rescoped.contains(element)) {
+                result.add(element);
+            }
+        }
+        result.addAll(replacements);
+        return result;
+    }
+
+    private static boolean isJustInTimeBindable(Key<?> key) {
+        Class<?> type = key.getTypeLiteral().getRawType();
+        return key.getAnnotationType() == null && !type.isInterface() && !Modifier.isAbstract(type.getModifiers());
+    }
+
+    /**
+     * @return Binding as the binder DSL records it for bind(key) without a target or scope
+     */
+    private static Binding<?> untargetted(Key<?> key) {
+        return (Binding<?>) Elements.getElements(binder -> binder.bind(key)).get(0);
+    }
+
+    /**
+     * @return Predicate accepting all bindings that Guice will instantiate while creating an injector in stage,
+     * including in PRODUCTION the @Singleton classes only reached as the target of a linked binding
+     */
+    public static Predicate<Binding<?>> eagerSingletons(final Stage stage) {
+        return binding -> binding.acceptScopingVisitor(new DefaultBindingScopingVisitor<Boolean>() {
+            @Override
+            public Boolean visitEagerSingleton() {
+                return true;
+            }
+
+            @Override
+            protected Boolean visitOther() {
+                return stage == Stage.PRODUCTION && isSingleton(binding);
+            }
+        });
+    }
+
+    /**
+     * @return Predicate accepting all singleton bindings except those explicitly bound as eager singletons
+     */
+    public static Predicate<Binding<?>> lazySingletons() {
+        return binding -> isSingleton(binding) && !binding.acceptScopingVisitor(
+                new DefaultBindingScopingVisitor<Boolean>() {
+                    @Override
+                    public Boolean visitEagerSingleton() {
+                        return true;
+                    }
+
+                    @Override
+                    protected Boolean visitOther() {
+                        return false;
+                    }
+                });
+    }
+
+    /**
+     * @return True if the binding is a singleton, either explicitly or by annotation of the bound type
+     */
+    public static boolean isSingleton(final Binding<?> binding) {
+        return binding.acceptScopingVisitor(new BindingScopingVisitor<Boolean>() {
+            @Override
+            public Boolean visitEagerSingleton() {
+                return true;
+            }
+
+            @Override
+            public Boolean visitScope(Scope scope) {
+                return scope == Scopes.SINGLETON;
+            }
+
+            @Override
+            public Boolean visitScopeAnnotation(Class<? extends Annotation> scopeAnnotation) {
+                return isSingletonAnnotation(scopeAnnotation);
+            }
+
+            @Override
+            public Boolean visitNoScoping() {
+                // Scope annotations on the bound type are only applied once the injector is created
+                if (binding instanceof UntargettedBinding) {
+                    for (Annotation annotation : binding.getKey().getTypeLiteral().getRawType().getAnnotations()) {
+                        if (isSingletonAnnotation(annotation.annotationType())) {
+                            return true;
+                        }
+                    }
+                }
+                return false;
+            }
+        });
+    }
+
+    private static boolean isSingletonAnnotation(Class<? extends Annotation> scopeAnnotation) {
+        return scopeAnnotation == com.google.inject.Singleton.class
+                || scopeAnnotation == javax.inject.Singleton.class;
+    }
+
+    /**
+     * Re-creates a binding using the binder DSL with the new scope.  Returns null for bindings
+     * that can't be rescoped.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final class RescopingTargetVisitor<T> extends DefaultBindingTargetVisitor<T, Boolean> {
+        private final Binder binder;
+        private final Scope scope;
+
+        private RescopingTargetVisitor(Binder binder, Scope scope) {
+            this.binder = binder;
+            this.scope = scope;
+        }
+
+        @Override
+        public Boolean visit(UntargettedBinding<? extends T> binding) {
+            binder.bind((Key) binding.getKey()).in(scope);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(LinkedKeyBinding<? extends T> binding) {
+            binder.bind((Key) binding.getKey()).to(binding.getLinkedKey()).in(scope);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(ConstructorBinding<? extends T> binding) {
+            InjectionPoint constructor = binding.getConstructor();
+            binder.bind((Key) binding.getKey())
+                    .toConstructor((Constructor) constructor.getMember(), constructor.getDeclaringType())
+                    .in(scope);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(ProviderInstanceBinding<? extends T> binding) {
+            binder.bind((Key) binding.getKey())
+                    .toProvider(binding.getUserSuppliedProvider())
+                    .in(scope);
+            return true;
+        }
+
+        @Override
+        public Boolean visit(ProviderKeyBinding<? extends T> binding) {
+            binder.bind((Key) binding.getKey())
+                    .toProvider((Key) binding.getProviderKey())
+                    .in(scope);
+            return true;
+        }
+    }
+}
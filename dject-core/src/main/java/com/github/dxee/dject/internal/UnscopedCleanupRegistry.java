@@ -0,0 +1,83 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.lifecycle.LifecycleAction;
+import com.github.dxee.dject.lifecycle.ManagedInstanceAction;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of cleanup actions for unscoped instances.  Instances are softly referenced, so
+ * unreachable instances are usually still cleaned up at shutdown unless memory ran low.  Entries
+ * of collected instances are purged as new instances are registered, so the registry only grows
+ * with the number of instances the garbage collector kept.
+ */
+final class UnscopedCleanupRegistry {
+    private final ConcurrentNavigableMap<Long, Entry> entries = new ConcurrentSkipListMap<>();
+    private final ReferenceQueue<Object> referenceQueue = new ReferenceQueue<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private static final class Entry extends SoftReference<Object> {
+        private final long id;
+        private final ManagedInstanceAction action;
+
+        Entry(long id, Object instance, Object context, Iterable<LifecycleAction> actions,
+              ReferenceQueue<Object> referenceQueue) {
+            super(instance, referenceQueue);
+            this.id = id;
+            this.action = new ManagedInstanceAction(this, context, actions);
+        }
+    }
+
+    void register(Object instance, Object context, Iterable<LifecycleAction> actions) {
+        purge();
+        long id = sequence.incrementAndGet();
+        entries.put(id, new Entry(id, instance, context, actions, referenceQueue));
+    }
+
+    /**
+     * Remove entries of instances that have been garbage collected
+     *
+     * @return Number of entries removed
+     */
+    int purge() {
+        int count = 0;
+        Reference<?> ref;
+        while ((ref = referenceQueue.poll()) != null) {
+            if (entries.remove(((Entry) ref).id) != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return Number of registered instances, including collected instances not purged yet
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Remove all entries
+     *
+     * @return Cleanup actions of the removed entries, most recently registered first
+     */
+    List<Callable<Void>> drain() {
+        List<Callable<Void>> actions = new ArrayList<>();
+        Map.Entry<Long, Entry> last;
+        while ((last = entries.pollLastEntry()) != null) {
+            actions.add(last.getValue().action);
+        }
+        purge();
+        return actions;
+    }
+}
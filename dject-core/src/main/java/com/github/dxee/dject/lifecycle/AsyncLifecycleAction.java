@@ -0,0 +1,30 @@
+package com.github.dxee.dject.lifecycle;
+
+/**
+ * LifecycleAction that may be invoked asynchronously while the injector is starting.
+ * Asynchronous post construct actions of an instance are invoked in order, after all
+ * of its synchronous actions.
+ *
+ * @see com.github.dxee.dject.annotations.AsyncInit
+ */
+public final class AsyncLifecycleAction implements LifecycleAction {
+    private final LifecycleAction delegate;
+
+    public AsyncLifecycleAction(LifecycleAction delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void call(Object obj) throws Exception {
+        delegate.call(obj);
+    }
+
+    public LifecycleAction getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String toString() {
+        return "Async[" + delegate + "]";
+    }
+}
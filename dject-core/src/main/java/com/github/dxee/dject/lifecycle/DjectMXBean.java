@@ -0,0 +1,122 @@
+package com.github.dxee.dject.lifecycle;
+
+import java.util.List;
+
+/**
+ * Management interface publishing the lifecycle, provisioning and shutdown statistics of an injector.
+ * Registered under {@value #DOMAIN} when {@link com.github.dxee.dject.feature.DjectFeatures#JMX} is enabled.
+ */
+public interface DjectMXBean {
+    String DOMAIN = "com.github.dxee.dject";
+
+    /**
+     * Provisioning statistics of a key
+     */
+    final class ProvisionStats {
+        private final String key;
+        private final long count;
+        private final double ratePerSecond;
+        private final long totalMillis;
+        private final long lifecycleMillis;
+        private final long p50Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+
+        public ProvisionStats(String key, long count, double ratePerSecond, long totalMillis, long lifecycleMillis,
+                              long p50Micros, long p99Micros, long maxMicros) {
+            this.key = key;
+            this.count = count;
+            this.ratePerSecond = ratePerSecond;
+            this.totalMillis = totalMillis;
+            this.lifecycleMillis = lifecycleMillis;
+            this.p50Micros = p50Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getRatePerSecond() {
+            return ratePerSecond;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getLifecycleMillis() {
+            return lifecycleMillis;
+        }
+
+        public long getP50Micros() {
+            return p50Micros;
+        }
+
+        public long getP99Micros() {
+            return p99Micros;
+        }
+
+        public long getMaxMicros() {
+            return maxMicros;
+        }
+    }
+
+    /**
+     * @return State of the LifecycleManager
+     */
+    String getState();
+
+    /**
+     * @return Time taken to start the injector, -1 until started
+     */
+    long getStartupDurationMillis();
+
+    /**
+     * @return Number of registered lifecycle listeners
+     */
+    int getListenerCount();
+
+    /**
+     * @return Provisions made until the injector started, by descending total time
+     */
+    List<ProvisionStats> getStartupProvisions();
+
+    /**
+     * @return Provisions sampled since the injector started, by descending total time
+     */
+    List<ProvisionStats> getRuntimeProvisions();
+
+    /**
+     * @return Singletons with @PreDestroy actions to run at shutdown
+     */
+    int getSingletonPreDestroyCount();
+
+    /**
+     * @return Instances of other scopes with @PreDestroy actions to run when their scope ends
+     */
+    int getScopedPreDestroyCount();
+
+    /**
+     * @return Unscoped instances with @PreDestroy actions that are still reachable
+     */
+    int getUnscopedPreDestroyCount();
+
+    /**
+     * @return Number of types scanned for lifecycle methods since the injector was created.  The count
+     *         never goes down, also not when the metadata of unloaded classes is dropped.
+     */
+    long getLifecycleTypesScanned();
+
+    /**
+     * @return Fraction of lifecycle metadata lookups that didn't have to scan the type.  A lookup is made
+     *         when a binding is first provisioned, and when it provides another type than the first time,
+     *         not on every provision.
+     */
+    double getLifecycleBindingLookupHitRate();
+}
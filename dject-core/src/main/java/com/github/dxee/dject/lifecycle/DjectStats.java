@@ -0,0 +1,154 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.internal.PreDestroyMonitor;
+import com.github.dxee.dject.lifecycle.impl.AbstractLifecycleListener;
+import com.github.dxee.dject.metrics.ProvisionMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * {@link DjectMXBean} of an injector, unregistered once the injector stops
+ */
+@Singleton
+public final class DjectStats extends AbstractLifecycleListener implements DjectMXBean {
+    private static final Logger LOGGER = LoggerFactory.getLogger(DjectStats.class);
+
+    private final LifecycleManager manager;
+    private final LifecycleModule.LifecycleProvisionListener provisionListener;
+    private final ProvisionMetrics metrics;
+    private volatile ObjectName objectName;
+
+    @Inject
+    DjectStats(LifecycleManager manager, LifecycleModule.LifecycleProvisionListener provisionListener,
+               ProvisionMetrics metrics) {
+        this.manager = manager;
+        this.provisionListener = provisionListener;
+        this.metrics = metrics;
+    }
+
+    /**
+     * Register with the platform MBeanServer
+     *
+     * @param name value of the name property of the ObjectName, unique per injector
+     */
+    public synchronized void register(String name) {
+        if (objectName != null) {
+            return;
+        }
+        try {
+            ObjectName candidate = new ObjectName(DOMAIN + ":type=Dject,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, candidate);
+            objectName = candidate;
+            LOGGER.debug("Registered {}", objectName);
+        } catch (JMException e) {
+            LOGGER.warn("Failed to register Dject MBean {}", name, e);
+        }
+    }
+
+    /**
+     * @return Name the MBean is registered with or null if it isn't registered
+     */
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    @Override
+    public synchronized void onStopped(Throwable optionalFailureReason) {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            if (server.isRegistered(objectName)) {
+                server.unregisterMBean(objectName);
+            }
+        } catch (JMException e) {
+            LOGGER.warn("Failed to unregister {}", objectName, e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public String getState() {
+        return manager.getState().name();
+    }
+
+    @Override
+    public long getStartupDurationMillis() {
+        return manager.getStartupDuration(TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public int getListenerCount() {
+        return manager.getListenerCount();
+    }
+
+    @Override
+    public List<ProvisionStats> getStartupProvisions() {
+        return toProvisionStats(metrics.getKeyMetrics());
+    }
+
+    @Override
+    public List<ProvisionStats> getRuntimeProvisions() {
+        return toProvisionStats(metrics.getRuntimeKeyMetrics());
+    }
+
+    private static List<ProvisionStats> toProvisionStats(Collection<ProvisionMetrics.KeyMetrics> keyMetrics) {
+        return keyMetrics.stream()
+                .sorted(Comparator.comparingLong(
+                        (ProvisionMetrics.KeyMetrics key) -> key.getTotalDuration(TimeUnit.NANOSECONDS)).reversed())
+                .map(key -> new ProvisionStats(
+                        key.getKey().toString(),
+                        key.getCount(),
+                        key.getRate(TimeUnit.SECONDS),
+                        key.getTotalDuration(TimeUnit.MILLISECONDS),
+                        key.getLifecycleDuration(TimeUnit.MILLISECONDS),
+                        key.getPercentile(50, TimeUnit.MICROSECONDS),
+                        key.getPercentile(99, TimeUnit.MICROSECONDS),
+                        key.getMaxDuration(TimeUnit.MICROSECONDS)))
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public int getSingletonPreDestroyCount() {
+        PreDestroyMonitor monitor = provisionListener.getPreDestroyMonitor();
+        return monitor != null ? monitor.getSingletonInstanceCount() : 0;
+    }
+
+    @Override
+    public int getScopedPreDestroyCount() {
+        PreDestroyMonitor monitor = provisionListener.getPreDestroyMonitor();
+        return monitor != null ? monitor.getScopedInstanceCount() : 0;
+    }
+
+    @Override
+    public int getUnscopedPreDestroyCount() {
+        PreDestroyMonitor monitor = provisionListener.getPreDestroyMonitor();
+        return monitor != null ? monitor.getUnscopedInstanceCount() : 0;
+    }
+
+    @Override
+    public long getLifecycleTypesScanned() {
+        return provisionListener.getTypesScanned();
+    }
+
+    @Override
+    public double getLifecycleBindingLookupHitRate() {
+        long lookups = provisionListener.getTypeLookups();
+        // Types scanned ahead of time by the warmup are hits for the provisioning lookups
+        long misses = provisionListener.getTypesScanned() - provisionListener.getWarmupScans();
+        return lookups == 0 ? 0 : Math.max(0, lookups - misses) / (double) lookups;
+    }
+}
@@ -2,17 +2,24 @@ package com.github.dxee.dject.lifecycle;
 
 import com.github.dxee.dject.annotations.SuppressLifecycleUninitialized;
 import com.github.dxee.dject.lifecycle.impl.SafeLifecycleListener;
+import com.github.dxee.dject.trace.FlightRecorder;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.ProvisionException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Singleton;
-import java.lang.ref.Reference;
-import java.lang.ref.ReferenceQueue;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -24,39 +31,25 @@ import java.util.concurrent.atomic.AtomicReference;
 @SuppressLifecycleUninitialized
 public final class LifecycleManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(LifecycleManager.class);
+    private static final FlightRecorder FLIGHT_RECORDER = FlightRecorder.get();
 
-    /**
-     * Processes unreferenced LifecycleListeners from the referenceQueue, until
-     * the 'running' flag is false or interrupted
-     */
-    private final class ListenerCleanupWorker implements Runnable {
-        public void run() {
-            try {
-                while (running.get()) {
-                    Reference<? extends LifecycleListener> ref = unreferencedListenersQueue.remove(1000);
-                    if (ref != null && ref instanceof SafeLifecycleListener) {
-                        removeListener((SafeLifecycleListener) ref);
-                    }
-                }
-                LOGGER.info("LifecycleManager.ListenerCleanupWorker is exiting");
-            } catch (InterruptedException e) {
-                LOGGER.info("LifecycleManager.ListenerCleanupWorker is exiting due to thread interrupt");
-            }
-        }
-    }
-
-
-    private final Set<SafeLifecycleListener> listeners = new LinkedHashSet<>();
+    // Registration order is only needed when notifying, which is rare compared to adding and
+    // removing listeners, so the order is kept as a sequence number instead of an ordered structure
+    private final ConcurrentMap<SafeLifecycleListener, Registration> listeners = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<CompletableFuture<?>> startupTasks = new ConcurrentLinkedQueue<>();
+    private final Object startupLock = new Object();
+    // Serializes starting and stopping the listeners, registration itself doesn't take it
+    private final Object phaseLock = new Object();
+    // Listeners added while the phases are started, they are started once all phases are done
+    private final Queue<Registration> lateRegistrations = new ConcurrentLinkedQueue<>();
+    private volatile boolean startingPhases;
     private final AtomicReference<State> state;
-    private final ReferenceQueue<LifecycleListener> unreferencedListenersQueue = new ReferenceQueue<>();
+    private final int notificationParallelism;
     private volatile Throwable failureReason;
-    private final ExecutorService reqQueueExecutor = Executors.newSingleThreadExecutor(
-            new ThreadFactoryBuilder()
-                    .setDaemon(true)
-                    .setNameFormat("lifecycle-listener-monitor-%d")
-                    .build()
-    );
-    private final AtomicBoolean running = new AtomicBoolean(true);
+    private volatile ShutdownReport shutdownReport;
+    private final long createdTime = System.nanoTime();
+    private volatile long startupNanos = -1;
 
     public enum State {
         Starting,
@@ -65,27 +58,102 @@ public final class LifecycleManager {
         Done
     }
 
+    /**
+     * Registered listener.  The flags make sure a listener is notified at most once per event
+     * when it is added while the manager changes state, and never started once it was stopped.
+     */
+    private static final class Registration {
+        private final long id;
+        private final int phase;
+        private final SafeLifecycleListener listener;
+        private boolean started;
+        private boolean stopped;
+
+        private Registration(long id, int phase, SafeLifecycleListener listener) {
+            this.id = id;
+            this.phase = phase;
+            this.listener = listener;
+        }
+
+        synchronized void onStarted() {
+            if (!started && !stopped) {
+                started = true;
+                listener.onStarted();
+            }
+        }
+
+        synchronized void onStopped(Throwable t) {
+            if (!stopped) {
+                stopped = true;
+                listener.onStopped(t);
+            }
+        }
+    }
+
     public LifecycleManager() {
+        this(1);
+    }
+
+    /**
+     * @param notificationParallelism Maximum number of listeners of the same phase notified concurrently
+     *                                when the manager is started.  Listeners are notified one after another
+     *                                in registration order when 1.
+     */
+    public LifecycleManager(int notificationParallelism) {
         LOGGER.info("Starting '{}'", this);
-        state = new AtomicReference<>(State.Starting);
-        reqQueueExecutor.submit(new ListenerCleanupWorker());
+        this.state = new AtomicReference<>(State.Starting);
+        this.notificationParallelism = Math.max(1, notificationParallelism);
     }
 
-    private synchronized void removeListener(SafeLifecycleListener listenerRef) {
+    private void removeListener(SafeLifecycleListener listenerRef) {
         listeners.remove(listenerRef);
     }
 
-    public synchronized void addListener(LifecycleListener listener) {
-        SafeLifecycleListener safeListener = SafeLifecycleListener.wrap(listener, unreferencedListenersQueue);
+    /**
+     * @return Snapshot of the registered listeners grouped by ascending phase, each in registration order
+     */
+    private NavigableMap<Integer, List<Registration>> phases() {
+        List<Registration> registrations = new ArrayList<>(listeners.values());
+        registrations.sort(Comparator.comparingLong(registration -> registration.id));
+        NavigableMap<Integer, List<Registration>> phases = new TreeMap<>();
+        for (Registration registration : registrations) {
+            phases.computeIfAbsent(registration.phase, phase -> new ArrayList<>()).add(registration);
+        }
+        return phases;
+    }
 
-        if (!listeners.contains(safeListener) && listeners.add(safeListener)) {
+    public void addListener(LifecycleListener listener) {
+        // Unreferenced listeners are removed by the shared ReferenceCleaner
+        SafeLifecycleListener safeListener = SafeLifecycleListener.wrap(listener, this::removeListener);
+        // Look up first as putIfAbsent locks the bin even when the listener is already registered
+        if (listeners.containsKey(safeListener)) {
+            return;
+        }
+
+        int phase = listener instanceof PhasedLifecycleListener
+                ? ((PhasedLifecycleListener) listener).getPhase()
+                : PhasedLifecycleListener.DEFAULT_PHASE;
+        Registration registration = new Registration(sequence.incrementAndGet(), phase, safeListener);
+        if (listeners.putIfAbsent(safeListener, registration) == null) {
             LOGGER.info("Adding listener '{}'", safeListener);
+            // The state is read after the listener is visible so that either this thread or the
+            // one changing the state notifies the listener
             switch (state.get()) {
-              case Started:
-                    safeListener.onStarted();
+                case Started:
+                    if (startingPhases) {
+                        // Starting it right away could start it before listeners of earlier phases
+                        lateRegistrations.add(registration);
+                        if (startingPhases) {
+                            break;
+                        }
+                        // Phases were done before the registration was queued
+                        startLateRegistrations();
+                    } else {
+                        registration.onStarted();
+                    }
                     break;
                 case Stopped:
-                    safeListener.onStopped(failureReason);
+                    registration.onStopped(failureReason);
                     break;
                 default:
                     // ignore
@@ -94,56 +162,228 @@ public final class LifecycleManager {
         }
     }
 
-    public synchronized void notifyStarted() {
-        if (state.compareAndSet(State.Starting, State.Started)) {
-            LOGGER.info("Started '{}'", this);
+    /**
+     * Register a task, such as an asynchronous @PostConstruct, that must complete before
+     * the manager is started.
+     *
+     * @param task task
+     * @return false if the manager is no longer starting, in which case the task was not registered
+     */
+    public boolean addStartupTask(CompletableFuture<?> task) {
+        synchronized (startupLock) {
+            if (state.get() != State.Starting) {
+                return false;
+            }
+            startupTasks.add(task);
+        }
+        // Only failed tasks need to be kept around until the manager is started
+        task.thenRun(() -> startupTasks.remove(task));
+        return true;
+    }
 
-            listeners.forEach((listener) -> {
-                listener.onStarted();
-            });
+    /**
+     * Wait for all startup tasks to complete and notify listeners that the manager started.
+     * If a startup task failed the start fails and the failure is rethrown.
+     */
+    public void notifyStarted() {
+        while (true) {
+            // Startup tasks may register further tasks so wait without holding the lock
+            awaitStartupTasks();
+            // Shutdown waits for the listeners to be started, otherwise they could be stopped first
+            synchronized (phaseLock) {
+                synchronized (startupLock) {
+                    if (!startupTasks.isEmpty()) {
+                        continue;
+                    }
+                    startingPhases = true;
+                    if (!transition(State.Starting, State.Started)) {
+                        startingPhases = false;
+                        return;
+                    }
+                    startupNanos = System.nanoTime() - createdTime;
+                }
+                LOGGER.info("Started '{}'", this);
+                try {
+                    startPhases(phases());
+                } finally {
+                    startingPhases = false;
+                }
+                startLateRegistrations();
+                return;
+            }
         }
     }
 
-    public synchronized void notifyStartFailed(final Throwable t) {
-        // State.Started added here to allow for failure  when LifecycleListener.onStarted() is called
-        if (state.compareAndSet(State.Starting, State.Stopped) || state.compareAndSet(State.Started, State.Stopped)) {
-            LOGGER.info("Failed start of '{}'", this);
-            if (running.compareAndSet(true, false)) {
-                reqQueueExecutor.shutdown();
+    /**
+     * Start listeners one phase at a time.  A phase is only started once every listener of
+     * the previous phase has been notified.
+     */
+    private void startPhases(NavigableMap<Integer, List<Registration>> phases) {
+        int largestPhase = phases.values().stream().mapToInt(List::size).max().orElse(0);
+        if (notificationParallelism == 1 || largestPhase < 2) {
+            phases.values().forEach(phase -> phase.forEach(Registration::onStarted));
+            return;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.min(notificationParallelism, largestPhase),
+                new ThreadFactoryBuilder().setDaemon(true).setNameFormat("dject-lifecycle-notify-%d").build());
+        try {
+            for (Map.Entry<Integer, List<Registration>> phase : phases.entrySet()) {
+                long startTime = System.nanoTime();
+                startConcurrently(phase.getValue(), executor);
+                LOGGER.debug("Started phase {} with {} listeners in {} ms", phase.getKey(), phase.getValue().size(),
+                        TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
             }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Start the listeners added while the phases were started, by phase and in registration order
+     */
+    private void startLateRegistrations() {
+        List<Registration> late = new ArrayList<>();
+        Registration registration;
+        while ((registration = lateRegistrations.poll()) != null) {
+            late.add(registration);
+        }
+        late.sort(Comparator.<Registration>comparingInt(r -> r.phase).thenComparingLong(r -> r.id));
+        late.forEach(Registration::onStarted);
+    }
+
+    /**
+     * Notify all listeners concurrently and wait for all of them to be notified.  The first failure
+     * is rethrown once every listener has been notified.
+     */
+    private static void startConcurrently(List<Registration> registered, ExecutorService executor) {
+        if (registered.size() < 2) {
+            registered.forEach(Registration::onStarted);
+            return;
+        }
+
+        try {
+            CompletableFuture<?>[] notifications = new CompletableFuture<?>[registered.size()];
+            for (int i = 0; i < notifications.length; i++) {
+                notifications[i] = CompletableFuture.runAsync(registered.get(i)::onStarted, executor);
+            }
+            CompletableFuture.allOf(notifications).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            } else if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private void awaitStartupTasks() {
+        CompletableFuture<?> task;
+        while ((task = startupTasks.poll()) != null) {
+            try {
+                task.join();
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                notifyStartFailed(cause);
+                throw new ProvisionException("Startup task failed", cause);
+            }
+        }
+    }
+
+    public void notifyStartFailed(final Throwable t) {
+        // The reason is set before the state changes, listeners added concurrently read it once they see Stopped
+        State current = state.get();
+        if (current == State.Starting || current == State.Started) {
             this.failureReason = t;
-            Iterator<SafeLifecycleListener> shutdownIter = new LinkedList<>(listeners).descendingIterator();
-            while (shutdownIter.hasNext()) {
-                shutdownIter.next().onStopped(t);
+        }
+        synchronized (phaseLock) {
+            // State.Started added here to allow for failure  when LifecycleListener.onStarted() is called
+            if (transition(State.Starting, State.Stopped) || transition(State.Started, State.Stopped)) {
+                LOGGER.info("Failed start of '{}'", this);
+                startupTasks.clear();
+                stopListeners(t);
             }
-            listeners.clear();
+            done();
         }
-        state.set(State.Done);
     }
 
-    public synchronized void notifyShutdown() {
-        if (running.compareAndSet(true, false)) {
-            reqQueueExecutor.shutdown();
+    /**
+     * Stop all listeners.  Waits for listeners that are being started so that no listener is stopped
+     * before it was started.
+     */
+    public void notifyShutdown() {
+        synchronized (phaseLock) {
+            if (transition(State.Started, State.Stopped)) {
+                LOGGER.info("Stopping '{}'", this);
+                stopListeners(null);
+            }
+            done();
+        }
+    }
+
+    private boolean transition(State from, State to) {
+        if (state.compareAndSet(from, to)) {
+            FLIGHT_RECORDER.lifecycleStateChange(this, from, to);
+            return true;
+        }
+        return false;
+    }
+
+    private void done() {
+        State previous = state.getAndSet(State.Done);
+        if (previous != State.Done) {
+            FLIGHT_RECORDER.lifecycleStateChange(this, previous, State.Done);
         }
-        if (state.compareAndSet(State.Started, State.Stopped)) {
-            LOGGER.info("Stopping '{}'", this);
-            Iterator<SafeLifecycleListener> shutdownIter = new LinkedList<>(listeners).descendingIterator();
-            while (shutdownIter.hasNext()) {
-                shutdownIter.next().onStopped(null);
+    }
+
+    private void stopListeners(Throwable t) {
+        // Phases are stopped last to first, listeners within a phase in reverse registration order
+        for (List<Registration> phase : phases().descendingMap().values()) {
+            for (int i = phase.size() - 1; i >= 0; i--) {
+                phase.get(i).onStopped(t);
             }
-            listeners.clear();
         }
-        state.set(State.Done);
+        listeners.clear();
+        lateRegistrations.clear();
     }
 
     public State getState() {
         return state.get();
     }
 
+    /**
+     * @return Number of registered listeners
+     */
+    public int getListenerCount() {
+        return listeners.size();
+    }
+
+    /**
+     * @return Time from the creation of the manager until it started, -1 if it hasn't started
+     */
+    public long getStartupDuration(TimeUnit units) {
+        long nanos = startupNanos;
+        return nanos < 0 ? -1 : units.convert(nanos, TimeUnit.NANOSECONDS);
+    }
+
     public Throwable getFailureReason() {
         return failureReason;
     }
 
+    /**
+     * @return Report of the cleanup actions run at shutdown or null if not shut down yet
+     */
+    public ShutdownReport getShutdownReport() {
+        return shutdownReport;
+    }
+
+    void setShutdownReport(ShutdownReport shutdownReport) {
+        this.shutdownReport = shutdownReport;
+    }
+
     @Override
     public String toString() {
         return "LifecycleManager@" + System.identityHashCode(this);
@@ -1,10 +1,21 @@
 package com.github.dxee.dject.lifecycle;
 
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.nio.file.Paths;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -12,16 +23,22 @@ import com.github.dxee.dject.annotations.SuppressLifecycleUninitialized;
 import com.github.dxee.dject.feature.DjectFeatureContainer;
 import com.github.dxee.dject.feature.DjectFeatures;
 import com.github.dxee.dject.internal.JSR250LifecycleAction;
+import com.github.dxee.dject.internal.LifecycleSnapshot;
 import com.github.dxee.dject.internal.PreDestroyMonitor;
 import com.github.dxee.dject.lifecycle.impl.AbstractLifecycleListener;
 import com.github.dxee.dject.lifecycle.impl.PostConstructLifecycleFeature;
 import com.github.dxee.dject.lifecycle.impl.PreDestroyLifecycleFeature;
+import com.github.dxee.dject.metrics.ProvisionMetrics;
 import com.github.dxee.dject.spi.LifecycleFeature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.collect.MapMaker;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
 import com.google.inject.Injector;
+import com.google.inject.Key;
 import com.google.inject.ProvisionException;
 import com.google.inject.matcher.Matchers;
 import com.google.inject.multibindings.Multibinder;
@@ -52,19 +69,108 @@ public final class LifecycleModule extends AbstractModule {
      */
     static class TypeLifecycleActions {
         final List<LifecycleAction> postConstructActions = new ArrayList<>();
+        final List<LifecycleAction> asyncPostConstructActions = new ArrayList<>();
         final List<LifecycleAction> preDestroyActions = new ArrayList<>();
+        // Plan of any binding provisioning this type, set once the actions are complete
+        BindingLifecyclePlan plan;
+    }
+
+    /**
+     * Lifecycle processing for a binding, decided on its first provision so that following
+     * provisions of the same type only need an identity lookup and a type check.  Plans for other
+     * types are kept with the type's actions, see {@link TypeLifecycleActions#plan}.
+     */
+    static final class BindingLifecyclePlan {
+        enum Kind {
+            /**
+             * Binding is not managed by Dject, ie. Spring-managed bindings
+             */
+            SKIP,
+            /**
+             * Type has no lifecycle actions
+             */
+            NO_OP,
+            /**
+             * Type only has post construct actions
+             */
+            ACTIONS,
+            /**
+             * Type only has pre destroy actions
+             */
+            PREDESTROY,
+            /**
+             * Type has post construct and pre destroy actions
+             */
+            ACTIONS_AND_PREDESTROY
+        }
+
+        static final BindingLifecyclePlan SKIP = new BindingLifecyclePlan(null, Kind.SKIP, null);
+
+        final Class<?> type;
+        final Kind kind;
+        final TypeLifecycleActions actions;
+
+        private BindingLifecyclePlan(Class<?> type, Kind kind, TypeLifecycleActions actions) {
+            this.type = type;
+            this.kind = kind;
+            this.actions = actions;
+        }
+
+        static BindingLifecyclePlan forType(Class<?> type, TypeLifecycleActions actions) {
+            boolean hasActions = !actions.postConstructActions.isEmpty()
+                    || !actions.asyncPostConstructActions.isEmpty();
+            boolean hasPreDestroy = !actions.preDestroyActions.isEmpty();
+            Kind kind;
+            if (hasActions) {
+                kind = hasPreDestroy ? Kind.ACTIONS_AND_PREDESTROY : Kind.ACTIONS;
+            } else {
+                kind = hasPreDestroy ? Kind.PREDESTROY : Kind.NO_OP;
+            }
+            return new BindingLifecyclePlan(type, kind, actions);
+        }
+
+        boolean appliesTo(Class<?> injecteeType) {
+            return kind == Kind.SKIP || type == injecteeType;
+        }
     }
 
     @Singleton
     @SuppressLifecycleUninitialized
     static class LifecycleProvisionListener extends AbstractLifecycleListener implements ProvisionListener {
-        private final ConcurrentMap<Class<?>, TypeLifecycleActions> cache = new ConcurrentHashMap<>(4096);
+        private static final String ASYNC_FLAG = "async";
+        private static final String AUTOCLOSEABLE_FLAG = "autocloseable";
+        // Lifecycle metadata is stored with the class itself so that this listener never pins
+        // classes, and thereby their ClassLoader, once they are otherwise unreachable
+        private final ClassValue<TypeLifecycleActions> cache = new ClassValue<TypeLifecycleActions>() {
+            @Override
+            protected TypeLifecycleActions computeValue(Class<?> type) {
+                typesScanned.increment();
+                if (WARMING_UP.get()) {
+                    warmupScans.increment();
+                }
+                return createActions(type);
+            }
+        };
+        // Set while a warmup thread fills the cache, its scans aren't misses of a provisioning lookup
+        private static final ThreadLocal<Boolean> WARMING_UP = ThreadLocal.withInitial(() -> false);
+        private final LongAdder typeLookups = new LongAdder();
+        private final LongAdder typesScanned = new LongAdder();
+        private final LongAdder warmupScans = new LongAdder();
+        // Identity keyed and weak so bindings of discarded child injectors don't leak
+        private final ConcurrentMap<Binding<?>, BindingLifecyclePlan> plans = new MapMaker().weakKeys().makeMap();
         private Set<LifecycleFeature> features;
         private final AtomicBoolean isShutdown = new AtomicBoolean();
         private PostConstructLifecycleFeature postConstructFeature;
         private PreDestroyLifecycleFeature preDestroyFeature;
         private PreDestroyMonitor preDestroyMonitor;
+        private LifecycleManager manager;
+        private Executor asyncInitExecutor;
+        private ProvisionMetrics metrics;
+        private LifecycleSnapshot snapshot;
+        private JSR250LifecycleAction.ValidationMode validationMode;
         private boolean shutdownOnFailure = true;
+        private Collection<Class<?>> warmupTypes = Collections.emptySet();
+        private Executor warmupExecutor;
 
         @SuppressLifecycleUninitialized
         @Singleton
@@ -92,14 +198,42 @@ public final class LifecycleModule extends AbstractModule {
                 return djectFeatures == null ? true :
                         djectFeatures.get(DjectFeatures.PREDESTROY_AUTOCLOSEABLE);
             }
+
+            int getShutdownParallelism() {
+                return djectFeatures == null ? DjectFeatures.SHUTDOWN_PARALLELISM.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.SHUTDOWN_PARALLELISM);
+            }
+
+            long getShutdownTimeoutMillis() {
+                return djectFeatures == null ? DjectFeatures.SHUTDOWN_TIMEOUT_MILLIS.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.SHUTDOWN_TIMEOUT_MILLIS);
+            }
+
+            long getShutdownActionTimeoutMillis() {
+                return djectFeatures == null ? DjectFeatures.SHUTDOWN_ACTION_TIMEOUT_MILLIS.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.SHUTDOWN_ACTION_TIMEOUT_MILLIS);
+            }
+
+            int getAsyncInitThreads() {
+                return djectFeatures == null ? DjectFeatures.ASYNC_INIT_THREADS.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.ASYNC_INIT_THREADS);
+            }
+
+            String getLifecycleSnapshot() {
+                return djectFeatures == null ? DjectFeatures.LIFECYCLE_SNAPSHOT.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.LIFECYCLE_SNAPSHOT);
+            }
         }
 
         @Inject
         public static void initialize(
                 final Injector injector,
+                LifecycleManager manager,
                 OptionalArgs args,
                 LifecycleProvisionListener provisionListener,
+                ProvisionMetrics metrics,
                 Set<LifecycleFeature> features) {
+            provisionListener.metrics = metrics;
             provisionListener.features = features;
             provisionListener.shutdownOnFailure = args.hasShutdownOnFailure();
             JSR250LifecycleAction.ValidationMode validationMode = args.getJsr250ValidationMode();
@@ -109,36 +243,229 @@ public final class LifecycleModule extends AbstractModule {
                 provisionListener.postConstructFeature = new PostConstructLifecycleFeature(validationMode);
                 provisionListener.preDestroyFeature = new PreDestroyLifecycleFeature(validationMode,
                         args.preDestroyAutoCloseable());
+                provisionListener.validationMode = validationMode;
+
+                String snapshotFile = args.getLifecycleSnapshot();
+                if (snapshotFile != null && !snapshotFile.isEmpty()) {
+                    provisionListener.snapshot = LifecycleSnapshot.open(Paths.get(snapshotFile),
+                            validationMode + "," + args.preDestroyAutoCloseable());
+                }
             }
-            provisionListener.preDestroyMonitor = new PreDestroyMonitor(injector.getScopeBindings());
+            provisionListener.preDestroyMonitor = new PreDestroyMonitor(injector, args.getShutdownParallelism(),
+                    args.getShutdownTimeoutMillis(), args.getShutdownActionTimeoutMillis());
+            provisionListener.manager = manager;
+            provisionListener.asyncInitExecutor = createAsyncInitExecutor(args.getAsyncInitThreads());
             LOGGER.debug("LifecycleProvisionListener initialized with features {}", features);
+            provisionListener.warmupActions();
+        }
+
+        private static Executor createAsyncInitExecutor(int threads) {
+            // Threads are only started for asynchronous initializers and time out once startup is done
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                    Math.max(1, threads), Math.max(1, threads), 10, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(),
+                    new ThreadFactoryBuilder()
+                            .setDaemon(true)
+                            .setNameFormat("dject-async-init-%d")
+                            .build());
+            executor.allowCoreThreadTimeOut(true);
+            return executor;
+        }
+
+        void warmup(Collection<Class<?>> types, Executor executor) {
+            this.warmupTypes = types;
+            this.warmupExecutor = executor;
+            // Class loading doesn't depend on the features so it starts right away
+            for (Class<?> type : types) {
+                executor.execute(() -> warmup(type, LifecycleProvisionListener::preload));
+            }
+        }
+
+        private void warmupActions() {
+            for (Class<?> type : warmupTypes) {
+                warmupExecutor.execute(() -> warmup(type, this::warmupActions));
+            }
+            warmupTypes = Collections.emptySet();
+        }
+
+        /**
+         * Fill the cache without counting a lookup, so that the lookups only reflect provisioning
+         */
+        private void warmupActions(Class<?> type) {
+            WARMING_UP.set(true);
+            try {
+                cache.get(type);
+            } finally {
+                WARMING_UP.set(false);
+            }
+        }
+
+        private static void warmup(Class<?> type, Consumer<Class<?>> step) {
+            try {
+                step.accept(type);
+            } catch (Throwable t) {
+                // The same failure is reported when the type is provisioned
+                LOGGER.debug("Failed to warm up {}", type.getName(), t);
+            }
+        }
+
+        /**
+         * Link the class hierarchy of the type and load the classes referenced by its members,
+         * which is the class loading otherwise done by the first scan for lifecycle methods
+         */
+        private static void preload(Class<?> type) {
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                c.getDeclaredFields();
+                c.getDeclaredConstructors();
+                c.getDeclaredMethods();
+            }
+        }
+
+        LifecycleSnapshot getSnapshot() {
+            return snapshot;
+        }
+
+        TypeLifecycleActions getOrCreateActions(Class<?> type) {
+            typeLookups.increment();
+            return cache.get(type);
+        }
+
+        /**
+         * @return Number of lookups in the type cache, made when a binding has no plan for the provisioned type
+         */
+        long getTypeLookups() {
+            return typeLookups.sum();
+        }
+
+        /**
+         * @return Number of types scanned for lifecycle actions, including types since unloaded
+         */
+        long getTypesScanned() {
+            return typesScanned.sum();
         }
 
-        private TypeLifecycleActions getOrCreateActions(Class<?> type) {
-            TypeLifecycleActions actions = cache.get(type);
-            if (actions == null) {
-                actions = new TypeLifecycleActions();
-                // Ordered set of actions to perform before PostConstruct
-                for (LifecycleFeature feature : features) {
-                    actions.postConstructActions.addAll(feature.getActionsForType(type));
+        /**
+         * @return Number of types scanned by the warmup before any lookup
+         */
+        long getWarmupScans() {
+            return warmupScans.sum();
+        }
+
+        PreDestroyMonitor getPreDestroyMonitor() {
+            return preDestroyMonitor;
+        }
+
+        private TypeLifecycleActions createActions(Class<?> type) {
+            TypeLifecycleActions actions = new TypeLifecycleActions();
+            // Ordered set of actions to perform before PostConstruct
+            for (LifecycleFeature feature : features) {
+                actions.postConstructActions.addAll(feature.getActionsForType(type));
+            }
+
+            // @PostConstruct and @PreDestroy methods, from the snapshot when it knows the type
+            List<LifecycleAction> postConstructActions = null;
+            List<LifecycleAction> preDestroyActions = null;
+            LifecycleSnapshot.Entry entry = snapshot != null ? snapshot.get(type) : null;
+            if (entry != null) {
+                try {
+                    postConstructActions = resolveActions(type, entry.getPostConstruct(), PostConstruct.class);
+                    preDestroyActions = resolveActions(type, entry.getPreDestroy(), PreDestroy.class);
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    LOGGER.debug("Ignoring lifecycle snapshot of {}", type.getName(), e);
+                    postConstructActions = null;
+                }
+            }
+            if (postConstructActions == null) {
+                postConstructActions = null != postConstructFeature
+                        ? postConstructFeature.getActionsForType(type) : Collections.emptyList();
+                preDestroyActions = null != preDestroyFeature
+                        ? preDestroyFeature.getActionsForType(type) : Collections.emptyList();
+                if (snapshot != null) {
+                    recordActions(type, postConstructActions, preDestroyActions);
                 }
+            }
 
-                if (null != postConstructFeature) {
-                    // Finally, add @PostConstruct methods
-                    actions.postConstructActions.addAll(postConstructFeature.getActionsForType(type));
+            // Finally, add @PostConstruct methods
+            actions.postConstructActions.addAll(postConstructActions);
+
+            // Asynchronous actions are run after all synchronous ones
+            for (Iterator<LifecycleAction> iter = actions.postConstructActions.iterator(); iter.hasNext();) {
+                LifecycleAction action = iter.next();
+                if (action instanceof AsyncLifecycleAction) {
+                    actions.asyncPostConstructActions.add(action);
+                    iter.remove();
                 }
+            }
 
-                if (null != preDestroyFeature) {
-                    // Determine @PreDestroy methods
-                    actions.preDestroyActions.addAll(preDestroyFeature.getActionsForType(type));
+            actions.preDestroyActions.addAll(preDestroyActions);
+            actions.plan = BindingLifecyclePlan.forType(type, actions);
+            return actions;
+        }
+
+        private List<LifecycleAction> resolveActions(Class<?> type, List<LifecycleSnapshot.MethodRef> refs,
+                                                     Class<? extends Annotation> annotation)
+                throws ReflectiveOperationException {
+            List<LifecycleAction> resolved = new ArrayList<>(refs.size());
+            for (LifecycleSnapshot.MethodRef ref : refs) {
+                Class<?> declaringClass = type;
+                while (!declaringClass.getName().equals(ref.getDeclaringClass())) {
+                    declaringClass = declaringClass.getSuperclass();
+                    if (declaringClass == null) {
+                        throw new ClassNotFoundException(ref.getDeclaringClass());
+                    }
                 }
+                if (AUTOCLOSEABLE_FLAG.equals(ref.getFlag())) {
+                    resolved.add(new PreDestroyLifecycleFeature.AutoCloseableLifecycleAction(
+                            declaringClass.asSubclass(AutoCloseable.class)));
+                    continue;
+                }
+                LifecycleAction action = new JSR250LifecycleAction(annotation,
+                        declaringClass.getDeclaredMethod(ref.getName()), validationMode);
+                resolved.add(ASYNC_FLAG.equals(ref.getFlag()) ? new AsyncLifecycleAction(action) : action);
+            }
+            return resolved;
+        }
+
+        private void recordActions(Class<?> type, List<LifecycleAction> postConstructActions,
+                                   List<LifecycleAction> preDestroyActions) {
+            List<LifecycleSnapshot.MethodRef> postConstruct = toMethodRefs(postConstructActions);
+            List<LifecycleSnapshot.MethodRef> preDestroy = toMethodRefs(preDestroyActions);
+            if (postConstruct != null && preDestroy != null) {
+                snapshot.put(type, postConstruct, preDestroy);
+            }
+        }
 
-                TypeLifecycleActions existing = cache.putIfAbsent(type, actions);
-                if (existing != null) {
-                    return existing;
+        /**
+         * @return References to the methods invoked by the actions or null if an action isn't method based
+         */
+        private static List<LifecycleSnapshot.MethodRef> toMethodRefs(List<LifecycleAction> actions) {
+            List<LifecycleSnapshot.MethodRef> refs = new ArrayList<>(actions.size());
+            for (LifecycleAction action : actions) {
+                String flag = null;
+                if (action instanceof AsyncLifecycleAction) {
+                    action = ((AsyncLifecycleAction) action).getDelegate();
+                    flag = ASYNC_FLAG;
+                }
+                if (action instanceof JSR250LifecycleAction) {
+                    Method method = ((JSR250LifecycleAction) action).getMethod();
+                    refs.add(new LifecycleSnapshot.MethodRef(method.getDeclaringClass().getName(),
+                            method.getName(), flag));
+                } else if (action instanceof PreDestroyLifecycleFeature.AutoCloseableLifecycleAction) {
+                    refs.add(new LifecycleSnapshot.MethodRef(
+                            ((PreDestroyLifecycleFeature.AutoCloseableLifecycleAction) action).getType().getName(),
+                            "close", AUTOCLOSEABLE_FLAG));
+                } else {
+                    return null;
                 }
             }
-            return actions;
+            return refs;
+        }
+
+        @Override
+        public void onStarted() {
+            if (snapshot != null) {
+                snapshot.save();
+            }
         }
 
         /**
@@ -146,6 +473,10 @@ public final class LifecycleModule extends AbstractModule {
          */
         @Override
         public synchronized void onStopped(Throwable optionalFailureReason) {
+            if (snapshot != null) {
+                // Types first provisioned after start
+                snapshot.save();
+            }
             if (shutdownOnFailure || optionalFailureReason == null) {
                 if (isShutdown.compareAndSet(false, true)) {
                     try {
@@ -153,6 +484,7 @@ public final class LifecycleModule extends AbstractModule {
                     } catch (Exception e) {
                         LOGGER.error("failed closing preDestroyMonitor", e);
                     }
+                    manager.setShutdownReport(preDestroyMonitor.getShutdownReport());
                 }
             }
         }
@@ -177,35 +509,122 @@ public final class LifecycleModule extends AbstractModule {
                 return;
             }
 
+            final Binding<T> binding = provision.getBinding();
+            BindingLifecyclePlan plan = plans.get(binding);
+            if (plan == null) {
+                plan = createPlan(binding, injectee.getClass());
+            } else if (!plan.appliesTo(injectee.getClass())) {
+                // Provider returning another type, the binding is already known not to be skipped
+                plan = getOrCreateActions(injectee.getClass()).plan;
+            }
+
+            switch (plan.kind) {
+                case SKIP:
+                case NO_OP:
+                    break;
+                case ACTIONS:
+                    invokePostConstruct(injectee, binding.getKey(), plan.actions);
+                    break;
+                case PREDESTROY:
+                    registerPreDestroy(injectee, binding, plan.actions);
+                    break;
+                case ACTIONS_AND_PREDESTROY:
+                    invokePostConstruct(injectee, binding.getKey(), plan.actions);
+                    registerPreDestroy(injectee, binding, plan.actions);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown lifecycle plan " + plan.kind);
+            }
+        }
+
+        private BindingLifecyclePlan createPlan(Binding<?> binding, Class<?> type) {
+            BindingLifecyclePlan plan;
             //Ignore for Spring-managed bindings
-            Object source = provision.getBinding().getSource();
+            Object source = binding.getSource();
             if (source != null && source.toString().contains("spring-guice")) {
-                return;
+                plan = BindingLifecyclePlan.SKIP;
+            } else {
+                plan = getOrCreateActions(type).plan;
             }
+            // Only remember the first type seen for a binding, provider bindings
+            // returning different types fall back to the plan cached for each type
+            plans.putIfAbsent(binding, plan);
+            return plan;
+        }
 
-            final TypeLifecycleActions actions = getOrCreateActions(injectee.getClass());
-
+        private void invokePostConstruct(Object injectee, Key<?> key, TypeLifecycleActions actions) {
+            // Lifecycle actions are only timed for provisions recorded by the metrics, unsampled
+            // provisions would otherwise be charged to the provision they are nested in
+            boolean timed = metrics.isRecording(key);
+            long startTime = timed ? System.nanoTime() : 0;
             // Call all postConstructActions for this injectee
-            if (!actions.postConstructActions.isEmpty()) {
+            try {
+                new ManagedInstanceAction(injectee, actions.postConstructActions,
+                        timed ? this::actionExecuted : null).call();
+            } catch (Exception e) {
+                throw new ProvisionException("postConstruct failed", e);
+            } finally {
+                if (timed) {
+                    metrics.addLifecycleDuration(System.nanoTime() - startTime);
+                }
+            }
+
+            if (!actions.asyncPostConstructActions.isEmpty()) {
+                invokeAsyncPostConstruct(injectee, actions.asyncPostConstructActions);
+            }
+        }
+
+        private void actionExecuted(LifecycleAction action, long startTime, long endTime) {
+            metrics.addLifecycleAction(action.toString(), startTime, endTime);
+        }
+
+        private void invokeAsyncPostConstruct(Object injectee, List<LifecycleAction> asyncActions) {
+            final ManagedInstanceAction action = new ManagedInstanceAction(injectee, asyncActions);
+            final CompletableFuture<Void> task = new CompletableFuture<>();
+            // Once started there is nothing to wait for the action so it is run synchronously
+            if (!manager.addStartupTask(task)) {
                 try {
-                    new ManagedInstanceAction(injectee, actions.postConstructActions).call();
+                    action.call();
                 } catch (Exception e) {
                     throw new ProvisionException("postConstruct failed", e);
                 }
+                return;
             }
 
-            // Add any PreDestroy methods to the shutdown list of actions
-            if (!actions.preDestroyActions.isEmpty()) {
-                if (!isShutdown.get()) {
-                    preDestroyMonitor.register(injectee, provision.getBinding(), actions.preDestroyActions);
-                } else {
-                    LOGGER.warn("Already shutting down.  Shutdown methods {} on {} will not be invoked",
-                            actions.preDestroyActions, injectee.getClass().getName());
+            asyncInitExecutor.execute(() -> {
+                try {
+                    action.call();
+                    task.complete(null);
+                } catch (Throwable t) {
+                    LOGGER.error("Asynchronous postConstruct failed for {}", injectee.getClass().getName(), t);
+                    task.completeExceptionally(t);
                 }
+            });
+        }
+
+        private <T> void registerPreDestroy(T injectee, Binding<T> binding, TypeLifecycleActions actions) {
+            // Add any PreDestroy methods to the shutdown list of actions
+            if (!isShutdown.get()) {
+                preDestroyMonitor.register(injectee, binding, actions.preDestroyActions);
+            } else {
+                LOGGER.warn("Already shutting down.  Shutdown methods {} on {} will not be invoked",
+                        actions.preDestroyActions, injectee.getClass().getName());
             }
         }
     }
 
+    /**
+     * Load the given types and find their lifecycle actions on the executor while the injector
+     * is being created, instead of on the first provision of each type.  Must be called before
+     * the module is installed.
+     *
+     * @param types concrete types that are likely to be provisioned
+     * @param executor executor running the warmup, which should be shut down once the injector is created
+     */
+    public void warmup(Collection<Class<?>> types, Executor executor) {
+        provisionListener.warmup(types, executor);
+    }
+
     @Override
     protected void configure() {
         requestStaticInjection(LifecycleProvisionListener.class);
@@ -12,18 +12,32 @@ public final class ManagedInstanceAction implements Callable<Void> {
     private final Object target; // the managed instance
     private final Reference<?> targetReference; // reference to the managed instance
     private final Iterable<LifecycleAction> actions; // set of actions that will be applied to target
+    private final Observer observer; // notified of each action's execution time, may be null
+
+    /**
+     * Receives the execution time of each action
+     */
+    public interface Observer {
+        void executed(LifecycleAction action, long startTime, long endTime);
+    }
 
     public ManagedInstanceAction(Object target, Iterable<LifecycleAction> actions) {
+        this(target, actions, null);
+    }
+
+    public ManagedInstanceAction(Object target, Iterable<LifecycleAction> actions, Observer observer) {
         // keep hard reference to target
         this.target = target;
         this.targetReference = null;
         this.actions = actions;
+        this.observer = observer;
     }
 
     public ManagedInstanceAction(Reference<?> target, Object context, Iterable<LifecycleAction> actions) {
         this.target = null;
         this.targetReference = target; // keep hard reference to target
         this.actions = actions;
+        this.observer = null;
     }
 
     @Override
@@ -31,7 +45,16 @@ public final class ManagedInstanceAction implements Callable<Void> {
         Object target = (targetReference == null) ? this.target : targetReference.get();
         if (target != null) {
             for (LifecycleAction m : actions) {
-                m.call(target);
+                if (observer == null) {
+                    m.call(target);
+                } else {
+                    long startTime = System.nanoTime();
+                    try {
+                        m.call(target);
+                    } finally {
+                        observer.executed(m, startTime, System.nanoTime());
+                    }
+                }
             }
         }
         return null;
@@ -0,0 +1,24 @@
+package com.github.dxee.dject.lifecycle;
+
+/**
+ * LifecycleListener that is started and stopped as part of a phase.  Listeners of a lower phase
+ * are all started before any listener of a higher phase is, and are stopped after all listeners
+ * of higher phases have been stopped.  For example, listeners warming caches may run in an earlier
+ * phase than listeners opening network ports, which in turn run before registering the instance
+ * in discovery.
+ * <p>
+ * Listeners within a phase are considered independent of each other and are started concurrently
+ * when {@link com.github.dxee.dject.feature.DjectFeatures#LIFECYCLE_LISTENER_PARALLELISM} is greater
+ * than 1.  Listeners that don't implement this interface are in {@link #DEFAULT_PHASE}.
+ * <p>
+ * Listeners added while the phases are being started are started after the last phase, ordered by
+ * their phase.
+ */
+public interface PhasedLifecycleListener extends LifecycleListener {
+    int DEFAULT_PHASE = 0;
+
+    /**
+     * @return Phase of this listener, lower phases start first and stop last
+     */
+    int getPhase();
+}
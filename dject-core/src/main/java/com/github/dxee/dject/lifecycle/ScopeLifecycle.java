@@ -0,0 +1,38 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.internal.PreDestroyMonitor;
+
+/**
+ * Hook for custom scopes to release the instances of a scope as soon as the scope ends.
+ * <p>
+ * Cleanup actions, such as @PreDestroy, of scoped instances are otherwise only invoked once
+ * the scope's storage has been garbage collected, which may be long after the scope ended.
+ * <p>
+ * close runs the cleanup actions on the calling thread.  Those of garbage collected scopes run
+ * on a daemon thread of their own without a time budget, so @PreDestroy methods of scoped
+ * instances must not block indefinitely.  A blocked action doesn't hold up the cleanup of other
+ * scopes or injectors, but its thread is never released.
+ *
+ * <code>
+ * public void exit() {
+ *     Map&lt;Key&lt;?&gt;, Object&gt; scopedObjects = content.get();
+ *     content.remove();
+ *     ScopeLifecycle.close(scopedObjects);
+ * }
+ * </code>
+ */
+public final class ScopeLifecycle {
+    private ScopeLifecycle() {
+    }
+
+    /**
+     * Invoke the cleanup actions of all managed instances of a scope instance, in reverse order
+     * of their creation.  Calling close for a scope instance more than once has no effect.
+     *
+     * @param scopeInstance storage of the scope instance, a Map or Iterable of the scoped objects
+     * @return True if cleanup actions were invoked, false if there were none or they already ran
+     */
+    public static boolean close(Object scopeInstance) {
+        return scopeInstance != null && PreDestroyMonitor.closeScope(scopeInstance);
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.dxee.dject.lifecycle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of the cleanup actions, such as @PreDestroy, run while shutting down an injector
+ */
+public final class ShutdownReport {
+    public enum Status {
+        /**
+         * Action ran to completion
+         */
+        COMPLETED,
+        /**
+         * Action threw an exception
+         */
+        FAILED,
+        /**
+         * Action did not complete in time and was abandoned
+         */
+        TIMED_OUT,
+        /**
+         * Action was not run because the shutdown deadline had passed
+         */
+        SKIPPED
+    }
+
+    public static final class Entry {
+        private final String key;
+        private final String action;
+        private final Status status;
+        private final long durationNanos;
+
+        public Entry(String key, String action, Status status, long durationNanos) {
+            this.key = key;
+            this.action = action;
+            this.status = status;
+            this.durationNanos = durationNanos;
+        }
+
+        /**
+         * @return Binding key of the managed instance or null if unknown
+         */
+        public String getKey() {
+            return key;
+        }
+
+        public String getAction() {
+            return action;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public long getDuration(TimeUnit units) {
+            return units.convert(durationNanos, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public String toString() {
+            return status + " " + getDuration(TimeUnit.MILLISECONDS) + " ms " + (key != null ? key + " " : "")
+                    + action;
+        }
+    }
+
+    private final List<Entry> entries;
+    private final long durationNanos;
+
+    public ShutdownReport(List<Entry> entries, long durationNanos) {
+        this.entries = Collections.unmodifiableList(new ArrayList<>(entries));
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * @return Entries in the order the actions finished
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    public long getDuration(TimeUnit units) {
+        return units.convert(durationNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public int getCount(Status status) {
+        int count = 0;
+        for (Entry entry : entries) {
+            if (entry.status == status) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return True if all actions completed successfully
+     */
+    public boolean isClean() {
+        return getCount(Status.COMPLETED) == entries.size();
+    }
+
+    /**
+     * @param count maximum number of entries
+     * @return Entries that took the longest, slowest first
+     */
+    public List<Entry> getSlowest(int count) {
+        List<Entry> sorted = new ArrayList<>(entries);
+        sorted.sort(Comparator.comparingLong((Entry entry) -> entry.durationNanos).reversed());
+        return sorted.subList(0, Math.min(count, sorted.size()));
+    }
+
+    @Override
+    public String toString() {
+        return "ShutdownReport{"
+                + "duration=" + getDuration(TimeUnit.MILLISECONDS) + " ms"
+                + ", completed=" + getCount(Status.COMPLETED)
+                + ", failed=" + getCount(Status.FAILED)
+                + ", timedOut=" + getCount(Status.TIMED_OUT)
+                + ", skipped=" + getCount(Status.SKIPPED)
+                + '}';
+    }
+}
@@ -1,7 +1,9 @@
 package com.github.dxee.dject.lifecycle.impl;
 
+import com.github.dxee.dject.annotations.AsyncInit;
 import com.github.dxee.dject.internal.JSR250LifecycleAction;
 import com.github.dxee.dject.internal.TypeInspector;
+import com.github.dxee.dject.lifecycle.AsyncLifecycleAction;
 import com.github.dxee.dject.lifecycle.LifecycleAction;
 import com.github.dxee.dject.spi.LifecycleFeature;
 import com.google.common.base.Supplier;
@@ -61,6 +63,9 @@ public final class PostConstructLifecycleFeature implements LifecycleFeature {
                     try {
                         LifecycleAction postConstructAction = new JSR250LifecycleAction(PostConstruct.class,
                                 method, validationMode);
+                        if (method.isAnnotationPresent(AsyncInit.class)) {
+                            postConstructAction = new AsyncLifecycleAction(postConstructAction);
+                        }
                         LOGGER.debug("adding action {}", postConstructAction);
                         this.typeActions.addFirst(postConstructAction);
                         visitContext.add(methodName);
@@ -97,10 +97,15 @@ public final class PreDestroyLifecycleFeature implements LifecycleFeature {
     }
 
 
-    private static final class AutoCloseableLifecycleAction implements LifecycleAction {
+    /**
+     * Action closing an AutoCloseable, used instead of @PreDestroy methods for AutoCloseable types
+     */
+    public static final class AutoCloseableLifecycleAction implements LifecycleAction {
+        private final Class<? extends AutoCloseable> type;
         private final String description;
 
-        private AutoCloseableLifecycleAction(Class<? extends AutoCloseable> clazz) {
+        public AutoCloseableLifecycleAction(Class<? extends AutoCloseable> clazz) {
+            this.type = clazz;
             this.description = new StringBuilder().append("AutoCloseable@")
                     .append(System.identityHashCode(this))
                     .append("[").append(clazz.getName()).append(".").append("close()").append("]")
@@ -113,6 +118,13 @@ public final class PreDestroyLifecycleFeature implements LifecycleFeature {
             AutoCloseable.class.cast(obj).close();
         }
 
+        /**
+         * @return Class of the hierarchy from which on instances are AutoCloseable
+         */
+        public Class<? extends AutoCloseable> getType() {
+            return type;
+        }
+
         @Override
         public String toString() {
             return description;
@@ -2,7 +2,9 @@ package com.github.dxee.dject.lifecycle.impl;
 
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
+import java.util.function.Consumer;
 
+import com.github.dxee.dject.internal.ReferenceCleaner;
 import com.github.dxee.dject.lifecycle.LifecycleListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -14,25 +16,45 @@ import com.google.common.base.Preconditions;
  * 1.  Logging of events as INFO
  * 2.  Swallow any event handler exceptions during shutdown
  */
-public final class SafeLifecycleListener extends WeakReference<LifecycleListener> implements LifecycleListener {
+public final class SafeLifecycleListener extends WeakReference<LifecycleListener>
+        implements LifecycleListener, ReferenceCleaner.Cleanable {
     private static final Logger LOGGER = LoggerFactory.getLogger(SafeLifecycleListener.class);
     private final int delegateHash;
-    private final String asString;
+    private volatile String asString;
+    private final Consumer<SafeLifecycleListener> onCollected;
 
     public static SafeLifecycleListener wrap(LifecycleListener listener) {
         Preconditions.checkNotNull(listener, "listener argument must be non-null");
-        return new SafeLifecycleListener(listener, null);
+        return new SafeLifecycleListener(listener, null, null);
     }
 
     public static SafeLifecycleListener wrap(LifecycleListener listener, ReferenceQueue<LifecycleListener> refQueue) {
         Preconditions.checkNotNull(listener, "listener argument must be non-null");
-        return new SafeLifecycleListener(listener, refQueue);
+        return new SafeLifecycleListener(listener, refQueue, null);
     }
 
-    private SafeLifecycleListener(LifecycleListener delegate, ReferenceQueue<LifecycleListener> refQueue) {
+    /**
+     * Wrap the listener and invoke onCollected on the shared {@link ReferenceCleaner} thread once the
+     * listener has been garbage collected
+     */
+    public static SafeLifecycleListener wrap(LifecycleListener listener,
+                                             Consumer<SafeLifecycleListener> onCollected) {
+        Preconditions.checkNotNull(listener, "listener argument must be non-null");
+        return new SafeLifecycleListener(listener, ReferenceCleaner.queue(), onCollected);
+    }
+
+    private SafeLifecycleListener(LifecycleListener delegate, ReferenceQueue<? super LifecycleListener> refQueue,
+                                  Consumer<SafeLifecycleListener> onCollected) {
         super(delegate, refQueue);
         this.delegateHash = delegate.hashCode();
-        this.asString = "SafeLifecycleListener@" + System.identityHashCode(this) + " [" + delegate.toString() + "]";
+        this.onCollected = onCollected;
+    }
+
+    @Override
+    public void clean() {
+        if (onCollected != null) {
+            onCollected.accept(this);
+        }
     }
 
     @Override
@@ -65,7 +87,17 @@ public final class SafeLifecycleListener extends WeakReference<LifecycleListener
 
     @Override
     public String toString() {
-        return asString;
+        // Built on first use since listeners are often wrapped only to look them up
+        String result = asString;
+        if (result == null) {
+            LifecycleListener delegate = get();
+            result = "SafeLifecycleListener@" + System.identityHashCode(this)
+                    + " [" + (delegate != null ? delegate.toString() : "collected") + "]";
+            if (delegate != null) {
+                asString = result;
+            }
+        }
+        return result;
     }
 
     @Override
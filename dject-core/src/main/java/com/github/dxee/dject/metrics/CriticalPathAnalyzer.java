@@ -0,0 +1,361 @@
+package com.github.dxee.dject.metrics;
+
+import com.google.inject.Binding;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import com.google.inject.spi.Dependency;
+import com.google.inject.spi.HasDependencies;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Analysis of what bounds the wall clock time of injector startup.  Each key costs the self time
+ * recorded for it by {@link ProvisionMetrics} and can only be provisioned once its dependencies,
+ * taken from the injection points of its binding, are.  The critical path is the most expensive
+ * chain of dependencies; it can't be shortened by instantiating more singletons in parallel.
+ * <p>
+ * Dependencies on providers are deferred and don't order provisioning.  Circular dependencies are
+ * broken where they are found.
+ *
+ * <pre>
+ * {@code
+ * CriticalPathAnalyzer analysis = CriticalPathAnalyzer.analyze(injector, injector.getInstance(ProvisionMetrics.class));
+ * LOGGER.info(analysis.report(1, 4, 8));
+ * }
+ * </pre>
+ */
+public final class CriticalPathAnalyzer {
+    private final Map<Key<?>, KeyAnalysis> keys;
+    private final List<KeyAnalysis> criticalPath;
+    private final long totalWork;
+    private final long criticalPathDuration;
+
+    /**
+     * Scheduling properties of a key, times in nanoseconds
+     */
+    public static final class KeyAnalysis {
+        private final Key<?> key;
+        private final long cost;
+        private final List<KeyAnalysis> dependencies = new ArrayList<>();
+        private final List<KeyAnalysis> dependents = new ArrayList<>();
+        private long earliestFinish;
+        private long latestFinish;
+        // Longest chain from the start of this key to the end of startup, used for scheduling
+        private long rank;
+
+        private KeyAnalysis(Key<?> key, long cost) {
+            this.key = key;
+            this.cost = cost;
+        }
+
+        public Key<?> getKey() {
+            return key;
+        }
+
+        /**
+         * @return Self time of the provisions of the key
+         */
+        public long getCost(TimeUnit units) {
+            return units.convert(cost, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return Earliest time the key can be provisioned by, with unlimited parallelism
+         */
+        public long getEarliestFinish(TimeUnit units) {
+            return units.convert(earliestFinish, TimeUnit.NANOSECONDS);
+        }
+
+        /**
+         * @return How much the provisioning of the key could be delayed without delaying startup,
+         * 0 for keys on the critical path
+         */
+        public long getSlack(TimeUnit units) {
+            return units.convert(latestFinish - earliestFinish, TimeUnit.NANOSECONDS);
+        }
+
+        public List<KeyAnalysis> getDependencies() {
+            return Collections.unmodifiableList(dependencies);
+        }
+
+        @Override
+        public String toString() {
+            return key + " cost=" + getCost(TimeUnit.MILLISECONDS) + "ms"
+                    + " slack=" + getSlack(TimeUnit.MILLISECONDS) + "ms";
+        }
+    }
+
+    private CriticalPathAnalyzer(Map<Key<?>, KeyAnalysis> keys) {
+        this.keys = keys;
+        List<KeyAnalysis> order = topologicalOrder(keys.values());
+
+        long work = 0;
+        long length = 0;
+        KeyAnalysis last = null;
+        for (KeyAnalysis node : order) {
+            long start = 0;
+            for (KeyAnalysis dependency : node.dependencies) {
+                start = Math.max(start, dependency.earliestFinish);
+            }
+            node.earliestFinish = start + node.cost;
+            work += node.cost;
+            if (last == null || node.earliestFinish > length) {
+                length = node.earliestFinish;
+                last = node;
+            }
+        }
+        for (int i = order.size() - 1; i >= 0; i--) {
+            KeyAnalysis node = order.get(i);
+            long latestFinish = length;
+            long rank = 0;
+            for (KeyAnalysis dependent : node.dependents) {
+                latestFinish = Math.min(latestFinish, dependent.latestFinish - dependent.cost);
+                rank = Math.max(rank, dependent.rank);
+            }
+            node.latestFinish = latestFinish;
+            node.rank = node.cost + rank;
+        }
+        this.totalWork = work;
+        this.criticalPathDuration = length;
+
+        List<KeyAnalysis> path = new ArrayList<>();
+        for (KeyAnalysis node = last; node != null; ) {
+            path.add(node);
+            KeyAnalysis next = null;
+            for (KeyAnalysis dependency : node.dependencies) {
+                if (next == null || dependency.earliestFinish > next.earliestFinish) {
+                    next = dependency;
+                }
+            }
+            node = next;
+        }
+        Collections.reverse(path);
+        this.criticalPath = Collections.unmodifiableList(path);
+    }
+
+    /**
+     * Analyze the provisions recorded by the metrics against the bindings of the injector
+     *
+     * @param injector injector whose bindings provide the dependencies between keys
+     * @param metrics metrics with the provisioning tree recorded during startup
+     * @return CriticalPathAnalyzer
+     */
+    public static CriticalPathAnalyzer analyze(Injector injector, ProvisionMetrics metrics) {
+        Map<Key<?>, Long> costs = new LinkedHashMap<>();
+        metrics.accept(new ProvisionMetrics.Visitor() {
+            @Override
+            public void visit(ProvisionMetrics.Element element) {
+                costs.merge(element.getKey(), element.getDuration(TimeUnit.NANOSECONDS), Long::sum);
+                element.accept(this);
+            }
+        });
+
+        Map<Key<?>, Set<Key<?>>> dependencies = new HashMap<>();
+        for (Map.Entry<Key<?>, Binding<?>> binding : injector.getAllBindings().entrySet()) {
+            if (binding.getValue() instanceof HasDependencies) {
+                Set<Key<?>> keys = new LinkedHashSet<>();
+                for (Dependency<?> dependency : ((HasDependencies) binding.getValue()).getDependencies()) {
+                    if (!isProvider(dependency.getKey())) {
+                        keys.add(dependency.getKey());
+                    }
+                }
+                dependencies.put(binding.getKey(), keys);
+            }
+        }
+        return analyze(costs, dependencies);
+    }
+
+    /**
+     * Analyze a dependency graph with the given costs in nanoseconds, keys without a cost cost nothing
+     */
+    static CriticalPathAnalyzer analyze(Map<Key<?>, Long> costs, Map<Key<?>, Set<Key<?>>> dependencies) {
+        Map<Key<?>, KeyAnalysis> keys = new LinkedHashMap<>();
+        costs.forEach((key, cost) -> keys.put(key, new KeyAnalysis(key, Math.max(0, cost))));
+        dependencies.forEach((key, deps) -> {
+            keys.computeIfAbsent(key, k -> new KeyAnalysis(k, 0));
+            deps.forEach(dep -> keys.computeIfAbsent(dep, k -> new KeyAnalysis(k, 0)));
+        });
+        dependencies.forEach((key, deps) -> {
+            KeyAnalysis node = keys.get(key);
+            for (Key<?> dep : deps) {
+                KeyAnalysis dependency = keys.get(dep);
+                if (dependency != node) {
+                    node.dependencies.add(dependency);
+                    dependency.dependents.add(node);
+                }
+            }
+        });
+        return new CriticalPathAnalyzer(keys);
+    }
+
+    private static boolean isProvider(Key<?> key) {
+        Class<?> type = key.getTypeLiteral().getRawType();
+        return type == com.google.inject.Provider.class || type == javax.inject.Provider.class;
+    }
+
+    /**
+     * Order the keys so that dependencies come first, dropping the edges closing a cycle
+     */
+    private static List<KeyAnalysis> topologicalOrder(Collection<KeyAnalysis> nodes) {
+        List<KeyAnalysis> order = new ArrayList<>(nodes.size());
+        Map<KeyAnalysis, Boolean> visited = new HashMap<>();
+        for (KeyAnalysis node : nodes) {
+            visit(node, visited, order);
+        }
+        return order;
+    }
+
+    private static void visit(KeyAnalysis root, Map<KeyAnalysis, Boolean> visited, List<KeyAnalysis> order) {
+        if (visited.containsKey(root)) {
+            return;
+        }
+        // Iterative depth first search, dependency graphs can be deeper than the stack allows
+        List<KeyAnalysis> stack = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        visited.put(root, Boolean.FALSE);
+        stack.add(root);
+        positions.add(0);
+        while (!stack.isEmpty()) {
+            int top = stack.size() - 1;
+            KeyAnalysis node = stack.get(top);
+            int position = positions.get(top);
+            if (position < node.dependencies.size()) {
+                positions.set(top, position + 1);
+                KeyAnalysis dependency = node.dependencies.get(position);
+                Boolean done = visited.get(dependency);
+                if (done == null) {
+                    visited.put(dependency, Boolean.FALSE);
+                    stack.add(dependency);
+                    positions.add(0);
+                } else if (!done) {
+                    // Dependency is still being visited, so this edge closes a cycle
+                    node.dependencies.remove(position);
+                    dependency.dependents.remove(node);
+                    positions.set(top, position);
+                }
+            } else {
+                visited.put(node, Boolean.TRUE);
+                order.add(node);
+                stack.remove(top);
+                positions.remove(top);
+            }
+        }
+    }
+
+    /**
+     * @return Sum of the costs of all keys, which is the startup time when provisioning serially
+     */
+    public long getTotalWork(TimeUnit units) {
+        return units.convert(totalWork, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Cost of the critical path, the startup time with unlimited parallelism
+     */
+    public long getCriticalPathDuration(TimeUnit units) {
+        return units.convert(criticalPathDuration, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Keys of the critical path, each depending on the previous one
+     */
+    public List<KeyAnalysis> getCriticalPath() {
+        return criticalPath;
+    }
+
+    /**
+     * @return Analysis of the key or null if it wasn't provisioned nor is a dependency
+     */
+    public KeyAnalysis getKey(Key<?> key) {
+        return keys.get(key);
+    }
+
+    public Collection<KeyAnalysis> getKeys() {
+        return Collections.unmodifiableCollection(keys.values());
+    }
+
+    /**
+     * Estimate the startup time when provisioning on the given number of threads.  Keys are scheduled
+     * as soon as their dependencies are provisioned, those heading the longest remaining chains first.
+     *
+     * @param parallelism number of threads provisioning concurrently
+     * @return Estimated startup time, never below the critical path nor the total work divided by parallelism
+     */
+    public long estimateStartupTime(int parallelism, TimeUnit units) {
+        int threads = Math.max(1, parallelism);
+        Map<KeyAnalysis, Integer> pending = new HashMap<>();
+        PriorityQueue<KeyAnalysis> ready = new PriorityQueue<>(
+                Comparator.comparingLong((KeyAnalysis node) -> node.rank).reversed());
+        for (KeyAnalysis node : keys.values()) {
+            pending.put(node, node.dependencies.size());
+            if (node.dependencies.isEmpty()) {
+                ready.add(node);
+            }
+        }
+
+        // Provisions in progress ordered by the time they finish
+        PriorityQueue<long[]> running = new PriorityQueue<>(Comparator.comparingLong((long[] run) -> run[0]));
+        List<KeyAnalysis> started = new ArrayList<>();
+        long now = 0;
+        while (!ready.isEmpty() || !running.isEmpty()) {
+            while (!ready.isEmpty() && running.size() < threads) {
+                KeyAnalysis node = ready.poll();
+                running.add(new long[] {now + node.cost, started.size()});
+                started.add(node);
+            }
+            long[] finished = running.poll();
+            now = finished[0];
+            for (KeyAnalysis dependent : started.get((int) finished[1]).dependents) {
+                if (pending.merge(dependent, -1, Integer::sum) == 0) {
+                    ready.add(dependent);
+                }
+            }
+        }
+        return units.convert(now, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @return Report of the critical path, the keys with the least slack and the estimated startup time
+     * for each parallelism
+     */
+    public String report(int... parallelisms) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Total work %d ms, critical path %d ms over %d keys%n",
+                getTotalWork(TimeUnit.MILLISECONDS), getCriticalPathDuration(TimeUnit.MILLISECONDS),
+                criticalPath.size()));
+        sb.append(String.format("Critical path:%n"));
+        for (KeyAnalysis node : criticalPath) {
+            sb.append(String.format("  %6d ms  %s%n", node.getCost(TimeUnit.MILLISECONDS), node.key));
+        }
+        sb.append(String.format("Most expensive keys off the critical path:%n"));
+        keys.values().stream()
+                .filter(node -> node.cost > 0 && !criticalPath.contains(node))
+                .sorted(Comparator.comparingLong((KeyAnalysis node) -> node.cost).reversed())
+                .limit(10)
+                .forEach(node -> sb.append(String.format("  %6d ms  slack %6d ms  %s%n",
+                        node.getCost(TimeUnit.MILLISECONDS), node.getSlack(TimeUnit.MILLISECONDS), node.key)));
+        for (int parallelism : parallelisms) {
+            sb.append(String.format("Estimated startup with %d threads: %d ms%n",
+                    parallelism, estimateStartupTime(parallelism, TimeUnit.MILLISECONDS)));
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return "CriticalPathAnalyzer[keys=" + keys.size()
+                + ", totalWork=" + getTotalWork(TimeUnit.MILLISECONDS) + "ms"
+                + ", criticalPath=" + getCriticalPathDuration(TimeUnit.MILLISECONDS) + "ms]";
+    }
+}
@@ -1,5 +1,8 @@
 package com.github.dxee.dject.metrics;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import com.google.inject.ImplementedBy;
@@ -27,6 +30,83 @@ public interface ProvisionMetrics {
         long getTotalDuration(TimeUnit units);
 
         void accept(Visitor visitor);
+
+        /**
+         * @return Start of the provision in {@link System#nanoTime()} time, 0 if unknown
+         */
+        default long getStartTime() {
+            return 0;
+        }
+
+        /**
+         * @return Name of the thread that provisioned the object, null if unknown
+         */
+        default String getThreadName() {
+            return null;
+        }
+
+        /**
+         * @return Lifecycle actions run synchronously as part of the provision, in the order they ran
+         */
+        default List<ActionSpan> getLifecycleActions() {
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * Execution of a lifecycle action, with times in {@link System#nanoTime()} time
+     */
+    final class ActionSpan {
+        private final String description;
+        private final long startTime;
+        private final long endTime;
+
+        public ActionSpan(String description, long startTime, long endTime) {
+            this.description = description;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public long getStartTime() {
+            return startTime;
+        }
+
+        public long getDuration(TimeUnit units) {
+            return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Metrics of all provisions of a key
+     */
+    interface KeyMetrics {
+        Key<?> getKey();
+
+        long getCount();
+
+        long getTotalDuration(TimeUnit units);
+
+        long getMaxDuration(TimeUnit units);
+
+        /**
+         * @return Part of the total duration spent running @PostConstruct and other lifecycle actions
+         */
+        long getLifecycleDuration(TimeUnit units);
+
+        /**
+         * @return Average number of provisions per unit of time since metrics started being collected
+         */
+        double getRate(TimeUnit units);
+
+        /**
+         * @param percentile percentile between 0 and 100
+         * @return Approximate duration below which the given percentage of provisions completed
+         */
+        long getPercentile(double percentile, TimeUnit units);
     }
 
     /**
@@ -45,6 +125,17 @@ public interface ProvisionMetrics {
      */
     void push(Key<?> key);
 
+    /**
+     * Notification that a sampled provision of type 'key' is about to be created,
+     * which stands for 'weight' provisions of the key.
+     *
+     * @param key
+     * @param weight number of provisions represented by this one
+     */
+    default void push(Key<?> key, int weight) {
+        push(key);
+    }
+
     /**
      * Pop and finalize initialization of the latest object to be provisioned.
      * A matching pop will be called for each push().
@@ -57,4 +148,46 @@ public interface ProvisionMetrics {
      * @param visitor
      */
     void accept(Visitor visitor);
+
+    /**
+     * @param key key of the provision in progress
+     * @return true if the latest provision pushed on the current thread, and not popped yet, is of the key.
+     *         Provisions that weren't sampled aren't pushed, so their lifecycle actions mustn't be added to
+     *         the provision they are nested in.
+     */
+    default boolean isRecording(Key<?> key) {
+        return false;
+    }
+
+    /**
+     * Add time spent running lifecycle actions to the latest provision pushed on the current thread
+     *
+     * @param nanos duration of the lifecycle actions
+     */
+    default void addLifecycleDuration(long nanos) {
+    }
+
+    /**
+     * Add a lifecycle action run for the latest provision pushed on the current thread
+     *
+     * @param description description of the action
+     * @param startTime start of the action in {@link System#nanoTime()} time
+     * @param endTime end of the action in {@link System#nanoTime()} time
+     */
+    default void addLifecycleAction(String description, long startTime, long endTime) {
+    }
+
+    /**
+     * @return Metrics aggregated per key over the provisions made until the injector started
+     */
+    default Collection<KeyMetrics> getKeyMetrics() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return Metrics aggregated per key over the provisions sampled since the injector started
+     */
+    default Collection<KeyMetrics> getRuntimeKeyMetrics() {
+        return Collections.emptyList();
+    }
 }
@@ -1,6 +1,10 @@
 package com.github.dxee.dject.metrics;
 
+import com.github.dxee.dject.annotations.SuppressLifecycleUninitialized;
+import com.github.dxee.dject.feature.DjectFeatureContainer;
+import com.github.dxee.dject.feature.DjectFeatures;
 import com.github.dxee.dject.lifecycle.LifecycleListener;
+import com.github.dxee.dject.trace.FlightRecorder;
 import com.google.inject.AbstractModule;
 import com.google.inject.Key;
 import com.google.inject.Provides;
@@ -12,43 +16,86 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.inject.Inject;
+import java.util.concurrent.ThreadLocalRandom;
 
 public final class ProvisionMetricsModule extends AbstractModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(ProvisionMetricsModule.class);
+    private static final FlightRecorder FLIGHT_RECORDER = FlightRecorder.get();
 
     @Singleton
     private static class MetricsProvisionListener implements ProvisionListener, LifecycleListener {
         private ProvisionMetrics metrics;
 
-        private boolean doneLoading = false;
+        private volatile boolean doneLoading = false;
+
+        // Record one in 'sampling' provisions once loading is done, 0 to stop recording
+        private int sampling;
+
+        @SuppressLifecycleUninitialized
+        @Singleton
+        static class OptionalArgs {
+            @com.google.inject.Inject(optional = true)
+            DjectFeatureContainer djectFeatures;
+
+            int getRuntimeSampling() {
+                return djectFeatures == null ? DjectFeatures.RUNTIME_PROVISION_SAMPLING.getDefaultValue() :
+                        djectFeatures.get(DjectFeatures.RUNTIME_PROVISION_SAMPLING);
+            }
+        }
 
         @Inject
-        public static void initialize(MetricsProvisionListener listener, ProvisionMetrics metrics) {
+        public static void initialize(MetricsProvisionListener listener, ProvisionMetrics metrics, OptionalArgs args) {
+            listener.sampling = Math.max(0, args.getRuntimeSampling());
             listener.metrics = metrics;
         }
 
         @Override
         public <T> void onProvision(ProvisionInvocation<T> provision) {
+            Object event = FLIGHT_RECORDER.beginProvision();
+            if (event == null) {
+                record(provision);
+                return;
+            }
+            // The event has to cover the provision, which Guice would otherwise only run once this returns
+            try {
+                if (!record(provision)) {
+                    provision.provision();
+                }
+            } finally {
+                FLIGHT_RECORDER.endProvision(event, provision.getBinding());
+            }
+        }
+
+        /**
+         * @return False if the provision wasn't recorded and is left to Guice
+         */
+        private <T> boolean record(ProvisionInvocation<T> provision) {
             final Key<?> key = provision.getBinding().getKey();
 
             if (metrics == null) {
                 LOGGER.debug("LifecycleProvisionListener not initialized yet : {} source={}",
                         key, provision.getBinding().getSource());
-                return;
+                return false;
             }
 
+            int weight = 1;
             if (doneLoading) {
-                return;
+                // Sampling keeps the cost of a provision that isn't recorded to a random number
+                if (sampling == 0 || (sampling > 1 && ThreadLocalRandom.current().nextInt(sampling) != 0)) {
+                    return false;
+                }
+                weight = sampling;
             }
 
             // Instantiate the type and pass to the metrics.  This time captured will
             // include invoking any lifecycle events.
-            metrics.push(key);
+            metrics.push(key, weight);
             try {
                 provision.provision();
             } finally {
                 metrics.pop();
             }
+            return true;
         }
 
         @Override
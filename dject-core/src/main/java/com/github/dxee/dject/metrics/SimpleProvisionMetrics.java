@@ -1,58 +1,191 @@
 package com.github.dxee.dject.metrics;
 
+import com.github.dxee.dject.lifecycle.impl.AbstractLifecycleListener;
 import com.google.inject.Key;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
-import java.util.Stack;
+import java.util.Queue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
 
 import javax.inject.Singleton;
 
+/**
+ * Provision metrics aggregated per key in fixed size histograms.  The dependency tree of
+ * {@link #accept(Visitor)} is only recorded until the injector has started, afterwards
+ * provisions only update the runtime aggregates of their key.
+ */
 @Singleton
-public final class SimpleProvisionMetrics implements ProvisionMetrics {
-    private final ConcurrentMap<Long, Node> threads = new ConcurrentHashMap<>();
+public final class SimpleProvisionMetrics extends AbstractLifecycleListener implements ProvisionMetrics {
+    private final Queue<Entry> roots = new ConcurrentLinkedQueue<>();
+    private final ConcurrentMap<Key<?>, Stats> startupStats = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Key<?>, Stats> runtimeStats = new ConcurrentHashMap<>();
+    private final ThreadLocal<Frames> frames = ThreadLocal.withInitial(Frames::new);
+    private final long createdTime = System.nanoTime();
+    private volatile long startedTime;
+    private volatile boolean started;
 
-    private static class Node {
-        List<Entry> children = new ArrayList<>();
-        Stack<Entry> stack = new Stack<>();
+    /**
+     * Provisions in progress on a thread, reused for all provisions of the thread
+     */
+    private static final class Frames {
+        private Key<?>[] keys = new Key<?>[16];
+        private long[] startTimes = new long[16];
+        private Entry[] entries = new Entry[16];
+        private int[] weights = new int[16];
+        private long[] lifecycleDurations = new long[16];
+        private int depth;
 
-        void accept(Visitor visitor) {
-            children.forEach(entry -> visitor.visit(entry));
+        void push(Key<?> key, int weight, long startTime, Entry entry) {
+            if (depth == keys.length) {
+                keys = Arrays.copyOf(keys, depth * 2);
+                startTimes = Arrays.copyOf(startTimes, depth * 2);
+                entries = Arrays.copyOf(entries, depth * 2);
+                weights = Arrays.copyOf(weights, depth * 2);
+                lifecycleDurations = Arrays.copyOf(lifecycleDurations, depth * 2);
+            }
+            keys[depth] = key;
+            startTimes[depth] = startTime;
+            entries[depth] = entry;
+            weights[depth] = weight;
+            lifecycleDurations[depth] = 0;
+            depth++;
+        }
+
+        Entry parent() {
+            return depth == 0 ? null : entries[depth - 1];
+        }
+    }
+
+    /**
+     * Lock free aggregate of the provisions of a key.  Durations are counted in buckets of powers
+     * of two nanoseconds, so percentiles are accurate to within a factor of two.  Sampled provisions
+     * are counted with the weight of the provisions they stand for.
+     */
+    static final class Stats implements KeyMetrics {
+        private static final int BUCKETS = 64;
+
+        private final Key<?> key;
+        private final long since;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder lifecycleNanos = new LongAdder();
+        private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        Stats(Key<?> key, long since) {
+            this.key = key;
+            this.since = since;
+        }
+
+        void record(long nanos, long lifecycleDuration, int weight) {
+            long duration = Math.max(0, nanos);
+            count.add(weight);
+            totalNanos.add(duration * weight);
+            lifecycleNanos.add(lifecycleDuration * weight);
+            maxNanos.accumulate(duration);
+            buckets.addAndGet(BUCKETS - Long.numberOfLeadingZeros(duration), weight);
         }
 
-        void push(Entry entry) {
-            if (stack.isEmpty()) {
-                children.add(entry);
-            } else {
-                stack.peek().add(entry);
+        @Override
+        public Key<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public long getCount() {
+            return count.sum();
+        }
+
+        @Override
+        public long getTotalDuration(TimeUnit units) {
+            return units.convert(totalNanos.sum(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getMaxDuration(TimeUnit units) {
+            return units.convert(maxNanos.get(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public long getLifecycleDuration(TimeUnit units) {
+            return units.convert(lifecycleNanos.sum(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public double getRate(TimeUnit units) {
+            long elapsed = Math.max(1, System.nanoTime() - since);
+            return (double) getCount() * TimeUnit.NANOSECONDS.convert(1, units) / elapsed;
+        }
+
+        @Override
+        public long getPercentile(double percentile, TimeUnit units) {
+            long[] counts = new long[BUCKETS];
+            long total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.get(i);
+                total += counts[i];
+            }
+            long rank = (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total);
+            long max = maxNanos.get();
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    // Upper bound of the bucket, which can't exceed the longest provision
+                    long upperBound = i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+                    return units.convert(Math.min(upperBound, max), TimeUnit.NANOSECONDS);
+                }
             }
-            stack.push(entry);
+            return 0;
         }
 
-        void pop() {
-            stack.pop().finish();
+        @Override
+        public String toString() {
+            return key + " count=" + getCount()
+                    + " p50=" + getPercentile(50, TimeUnit.MICROSECONDS) + "us"
+                    + " p99=" + getPercentile(99, TimeUnit.MICROSECONDS) + "us"
+                    + " max=" + getMaxDuration(TimeUnit.MICROSECONDS) + "us"
+                    + " lifecycle=" + getLifecycleDuration(TimeUnit.MICROSECONDS) + "us";
         }
     }
 
     public static class Entry implements Element {
         final Key<?> key;
         final List<Entry> children = new ArrayList<>();
-        final long startTime = System.nanoTime();
+        final long startTime;
+        final String threadName;
         long endTime;
+        List<ActionSpan> actions = Collections.emptyList();
 
-        Entry(Key<?> key) {
+        Entry(Key<?> key, long startTime, String threadName) {
             this.key = key;
+            this.startTime = startTime;
+            this.threadName = threadName;
+        }
+
+        void addAction(ActionSpan action) {
+            if (actions.isEmpty()) {
+                actions = new ArrayList<>();
+            }
+            actions.add(action);
         }
 
         void add(Entry child) {
             children.add(child);
         }
 
-        void finish() {
-            endTime = System.nanoTime();
+        void finish(long endTime) {
+            this.endTime = endTime;
         }
 
         @Override
@@ -80,24 +213,120 @@ public final class SimpleProvisionMetrics implements ProvisionMetrics {
         public long getTotalDuration(TimeUnit units) {
             return units.convert(endTime - startTime, TimeUnit.NANOSECONDS);
         }
-    }
 
-    private Node currentNode() {
-        return threads.computeIfAbsent(Thread.currentThread().getId(), id -> new Node());
+        @Override
+        public long getStartTime() {
+            return startTime;
+        }
+
+        @Override
+        public String getThreadName() {
+            return threadName;
+        }
+
+        @Override
+        public List<ActionSpan> getLifecycleActions() {
+            return actions;
+        }
     }
 
     @Override
     public void push(Key<?> key) {
-        currentNode().push(new Entry(key));
+        push(key, 1);
+    }
+
+    @Override
+    public void push(Key<?> key, int weight) {
+        Frames current = frames.get();
+        long startTime = System.nanoTime();
+        Entry entry = null;
+        if (!started) {
+            entry = new Entry(key, startTime, Thread.currentThread().getName());
+            Entry parent = current.parent();
+            if (parent != null) {
+                parent.add(entry);
+            } else if (current.depth == 0) {
+                roots.add(entry);
+            }
+        }
+        current.push(key, weight, startTime, entry);
     }
 
     @Override
     public void pop() {
-        currentNode().pop();
+        long endTime = System.nanoTime();
+        Frames current = frames.get();
+        if (current.depth == 0) {
+            throw new IllegalStateException("pop() without matching push()");
+        }
+        int index = --current.depth;
+        Key<?> key = current.keys[index];
+        Entry entry = current.entries[index];
+        current.keys[index] = null;
+        current.entries[index] = null;
+
+        if (entry != null) {
+            entry.finish(endTime);
+        }
+        // Provisions still running when the injector started count towards startup
+        boolean startup = entry != null || !started;
+        stats(startup ? startupStats : runtimeStats, key, startup ? createdTime : startedTime)
+                .record(endTime - current.startTimes[index], current.lifecycleDurations[index],
+                        current.weights[index]);
+    }
+
+    private static Stats stats(ConcurrentMap<Key<?>, Stats> stats, Key<?> key, long since) {
+        Stats keyStats = stats.get(key);
+        return keyStats != null ? keyStats : stats.computeIfAbsent(key, k -> new Stats(k, since));
+    }
+
+    @Override
+    public boolean isRecording(Key<?> key) {
+        Frames current = frames.get();
+        return current.depth > 0 && key.equals(current.keys[current.depth - 1]);
+    }
+
+    @Override
+    public void addLifecycleAction(String description, long startTime, long endTime) {
+        Entry entry = frames.get().parent();
+        if (entry != null) {
+            entry.addAction(new ActionSpan(description, startTime, endTime));
+        }
+    }
+
+    @Override
+    public void addLifecycleDuration(long nanos) {
+        Frames current = frames.get();
+        if (current.depth > 0) {
+            current.lifecycleDurations[current.depth - 1] += nanos;
+        }
     }
 
     @Override
     public void accept(Visitor visitor) {
-        threads.forEach((id, data) -> data.accept(visitor));
+        roots.forEach(visitor::visit);
+    }
+
+    @Override
+    public Collection<KeyMetrics> getKeyMetrics() {
+        return Collections.unmodifiableCollection(startupStats.values());
+    }
+
+    @Override
+    public Collection<KeyMetrics> getRuntimeKeyMetrics() {
+        return Collections.unmodifiableCollection(runtimeStats.values());
+    }
+
+    @Override
+    public void onStarted() {
+        startedTime = System.nanoTime();
+        started = true;
+    }
+
+    @Override
+    public void onStopped(Throwable error) {
+        if (!started) {
+            onStarted();
+        }
     }
 }
@@ -0,0 +1,167 @@
+package com.github.dxee.dject.metrics.export;
+
+import com.github.dxee.dject.metrics.ProvisionMetrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export of the provisioning tree recorded by {@link ProvisionMetrics} in the Chrome Trace Event Format,
+ * which can be opened in chrome://tracing or https://ui.perfetto.dev.  Each provisioning thread gets its
+ * own track, with a span per provision nested in the spans of the objects depending on it and a span
+ * per @PostConstruct action.
+ * <p>
+ * Provisions recorded without a start time are laid out one after another within their parent.
+ */
+public final class ChromeTraceExporter {
+    private static final int PID = 1;
+
+    private final Writer writer;
+    private final Map<String, Integer> threadIds = new LinkedHashMap<>();
+    private long origin = Long.MAX_VALUE;
+    private boolean first = true;
+
+    private ChromeTraceExporter(Writer writer) {
+        this.writer = writer;
+    }
+
+    /**
+     * Write the trace of the metrics to a file, replacing it if it exists
+     */
+    public static void export(ProvisionMetrics metrics, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            export(metrics, writer);
+        }
+    }
+
+    /**
+     * Write the trace of the metrics as a JSON object
+     */
+    public static void export(ProvisionMetrics metrics, Writer writer) throws IOException {
+        List<ProvisionMetrics.Element> roots = new ArrayList<>();
+        metrics.accept(roots::add);
+        new ChromeTraceExporter(writer).write(roots);
+    }
+
+    private void write(List<ProvisionMetrics.Element> roots) throws IOException {
+        for (ProvisionMetrics.Element root : roots) {
+            if (root.getStartTime() != 0) {
+                origin = Math.min(origin, root.getStartTime());
+            }
+        }
+        if (origin == Long.MAX_VALUE) {
+            origin = 0;
+        }
+
+        writer.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        try {
+            long cursor = 0;
+            for (ProvisionMetrics.Element root : roots) {
+                cursor = writeElement(root, cursor) + 1;
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        for (Map.Entry<String, Integer> thread : threadIds.entrySet()) {
+            startEvent();
+            writer.write("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":" + PID + ",\"tid\":" + thread.getValue()
+                    + ",\"args\":{\"name\":" + quote(thread.getKey()) + "}}");
+        }
+        writer.write("]}");
+        writer.flush();
+    }
+
+    /**
+     * @return End of the element in nanoseconds since the origin
+     */
+    private long writeElement(ProvisionMetrics.Element element, long defaultStart) {
+        long start = element.getStartTime() != 0 ? element.getStartTime() - origin : defaultStart;
+        long duration = element.getTotalDuration(TimeUnit.NANOSECONDS);
+        int tid = threadId(element.getThreadName());
+        String name = element.getKey().toString();
+        writeSpan(name, "provision", tid, start, duration,
+                ",\"args\":{\"self_us\":" + element.getDuration(TimeUnit.MICROSECONDS) + "}");
+
+        long[] cursor = {start};
+        element.accept(child -> cursor[0] = writeElement(child, cursor[0]));
+        for (ProvisionMetrics.ActionSpan action : element.getLifecycleActions()) {
+            writeSpan(action.getDescription(), "lifecycle", tid, action.getStartTime() - origin,
+                    action.getDuration(TimeUnit.NANOSECONDS), ",\"args\":{\"key\":" + quote(name) + "}");
+        }
+        return start + duration;
+    }
+
+    private void writeSpan(String name, String category, int tid, long start, long duration, String args) {
+        try {
+            startEvent();
+            writer.write("{\"name\":" + quote(name)
+                    + ",\"cat\":\"" + category + "\""
+                    + ",\"ph\":\"X\",\"pid\":" + PID
+                    + ",\"tid\":" + tid
+                    + ",\"ts\":" + micros(start)
+                    + ",\"dur\":" + micros(duration)
+                    + args + "}");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void startEvent() throws IOException {
+        if (!first) {
+            writer.write(",\n");
+        } else {
+            writer.write("\n");
+            first = false;
+        }
+    }
+
+    private int threadId(String threadName) {
+        return threadIds.computeIfAbsent(threadName == null ? "unknown" : threadName, name -> threadIds.size() + 1);
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    static String quote(String value) {
+        StringBuilder sb = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        sb.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        return sb.append('"').toString();
+    }
+}
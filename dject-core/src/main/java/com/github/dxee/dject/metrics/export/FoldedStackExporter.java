@@ -0,0 +1,75 @@
+package com.github.dxee.dject.metrics.export;
+
+import com.github.dxee.dject.metrics.ProvisionMetrics;
+import com.google.inject.Key;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Export of the provisioning tree recorded by {@link ProvisionMetrics} as folded stacks, the input
+ * format of flamegraph.pl, speedscope and similar tools.  Each line holds the keys from a root
+ * provision down to a nested one, separated by ';', followed by the self time of the last key in
+ * microseconds.  Identical paths are summed and paths without self time are left out.
+ */
+public final class FoldedStackExporter {
+    private FoldedStackExporter() {
+    }
+
+    /**
+     * Write the folded stacks of the metrics to a file, replacing it if it exists
+     */
+    public static void export(ProvisionMetrics metrics, Path file) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            export(metrics, writer);
+        }
+    }
+
+    /**
+     * Write the folded stacks of the metrics, one line per path
+     */
+    public static void export(ProvisionMetrics metrics, Writer writer) throws IOException {
+        for (Map.Entry<String, Long> stack : fold(metrics).entrySet()) {
+            writer.write(stack.getKey());
+            writer.write(' ');
+            writer.write(Long.toString(stack.getValue()));
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * @return Self time in microseconds by path, in the order paths were first provisioned
+     */
+    public static Map<String, Long> fold(ProvisionMetrics metrics) {
+        Map<String, Long> stacks = new LinkedHashMap<>();
+        metrics.accept(root -> fold(root, "", stacks));
+        return stacks;
+    }
+
+    private static void fold(ProvisionMetrics.Element element, String parent, Map<String, Long> stacks) {
+        String path = parent.isEmpty() ? frame(element.getKey()) : parent + ";" + frame(element.getKey());
+        long self = element.getDuration(TimeUnit.MICROSECONDS);
+        if (self > 0) {
+            stacks.merge(path, self, Long::sum);
+        }
+        element.accept(child -> fold(child, path, stacks));
+    }
+
+    /**
+     * Name of a key without the separators of the format
+     */
+    private static String frame(Key<?> key) {
+        String name = key.getTypeLiteral().toString()
+                + (key.getAnnotation() != null ? " [" + key.getAnnotation() + "]"
+                : key.getAnnotationType() != null ? " [@" + key.getAnnotationType().getName() + "]" : "");
+        return name.replace(';', ',').replace('\n', ' ').replace('\r', ' ');
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.dxee.dject.spi;
+
+/**
+ * Marker for {@link com.google.inject.spi.ElementVisitor}s that may be called concurrently from
+ * several threads, ie. because they don't keep state between elements.
+ * <p>
+ * Visitors passed to {@link com.github.dxee.dject.Dject.Builder#withBatchedElementVisitor} are called
+ * one element after another on a single thread unless they implement this interface.  Large
+ * modules are only visited concurrently when every visitor of a traversal implements it.
+ */
+public interface ConcurrentElementVisitor {
+}
@@ -0,0 +1,123 @@
+package com.github.dxee.dject.trace;
+
+import com.google.inject.Binding;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Emits Java Flight Recorder events for provisioning, lifecycle actions, lifecycle state changes
+ * and scope cleanup, so that time spent in dependency injection can be correlated with GC and lock
+ * contention in a flight recording.
+ * <p>
+ * The events are only created while a recording enables them.  On JVMs without the jdk.jfr module
+ * every method is a no-op.  The begin methods return null when the event is disabled and the end
+ * methods ignore a null event, so callers don't need to check.
+ * <p>
+ * The events are in the "Dject" category and may be configured in a .jfc file by name:
+ * <ul>
+ * <li>com.github.dxee.dject.Provision</li>
+ * <li>com.github.dxee.dject.LifecycleAction</li>
+ * <li>com.github.dxee.dject.LifecycleStateChange</li>
+ * <li>com.github.dxee.dject.ScopeCleanup</li>
+ * </ul>
+ */
+public abstract class FlightRecorder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecorder.class);
+
+    private static final String IMPLEMENTATION = "com.github.dxee.dject.trace.jfr.JfrFlightRecorder";
+
+    private static final FlightRecorder NONE = new FlightRecorder() {
+        @Override
+        public boolean isAvailable() {
+            return false;
+        }
+
+        @Override
+        public Object beginProvision() {
+            return null;
+        }
+
+        @Override
+        public void endProvision(Object event, Binding<?> binding) {
+        }
+
+        @Override
+        public Object beginLifecycleAction() {
+            return null;
+        }
+
+        @Override
+        public void endLifecycleAction(Object event, String description, String phase) {
+        }
+
+        @Override
+        public void lifecycleStateChange(Object source, Enum<?> from, Enum<?> to) {
+        }
+
+        @Override
+        public Object beginScopeCleanup() {
+            return null;
+        }
+
+        @Override
+        public void endScopeCleanup(Object event, String scope, int actions) {
+        }
+    };
+
+    private static final FlightRecorder INSTANCE = load();
+
+    private static FlightRecorder load() {
+        try {
+            Class.forName("jdk.jfr.Event", false, FlightRecorder.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return NONE;
+        }
+        try {
+            return (FlightRecorder) Class.forName(IMPLEMENTATION).getConstructor().newInstance();
+        } catch (Exception | LinkageError e) {
+            LOGGER.debug("Flight Recorder events not available", e);
+            return NONE;
+        }
+    }
+
+    public static FlightRecorder get() {
+        return INSTANCE;
+    }
+
+    protected FlightRecorder() {
+    }
+
+    /**
+     * @return False if the JVM doesn't support Flight Recorder events
+     */
+    public abstract boolean isAvailable();
+
+    /**
+     * @return Event to pass to {@link #endProvision(Object, Binding)} or null if disabled
+     */
+    public abstract Object beginProvision();
+
+    public abstract void endProvision(Object event, Binding<?> binding);
+
+    /**
+     * @return Event to pass to {@link #endLifecycleAction(Object, String, String)} or null if disabled
+     */
+    public abstract Object beginLifecycleAction();
+
+    /**
+     * @param phase Simple name of the lifecycle annotation, PostConstruct or PreDestroy
+     */
+    public abstract void endLifecycleAction(Object event, String description, String phase);
+
+    public abstract void lifecycleStateChange(Object source, Enum<?> from, Enum<?> to);
+
+    /**
+     * @return Event to pass to {@link #endScopeCleanup(Object, String, int)} or null if disabled
+     */
+    public abstract Object beginScopeCleanup();
+
+    /**
+     * @param actions Number of @PreDestroy and AutoCloseable actions run for the scope
+     */
+    public abstract void endScopeCleanup(Object event, String scope, int actions);
+}
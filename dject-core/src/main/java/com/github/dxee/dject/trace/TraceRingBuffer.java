@@ -0,0 +1,104 @@
+package com.github.dxee.dject.trace;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded, preallocated queue of trace events for many producers and a single consumer.
+ * Producers never block or allocate, an event offered while the buffer is full is dropped
+ * and counted instead.
+ * <p>
+ * Each slot carries a sequence number telling whether it is free for the producer claiming
+ * that position or holds an event ready for the consumer.
+ */
+final class TraceRingBuffer {
+    /**
+     * Receiver of the events taken from the buffer
+     */
+    interface Consumer {
+        void accept(String threadName, int depth, String message);
+    }
+
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final String[] threadNames;
+    private final int[] depths;
+    private final String[] messages;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Only accessed by the consumer
+    private long head;
+
+    TraceRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.threadNames = new String[size];
+        this.depths = new int[size];
+        this.messages = new String[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * @return False if the buffer is full and the event was dropped
+     */
+    boolean offer(String threadName, int depth, String message) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long available = sequences.get(index) - position;
+            if (available == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    threadNames[index] = threadName;
+                    depths[index] = depth;
+                    messages[index] = message;
+                    // Publishes the event to the consumer
+                    sequences.lazySet(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Pass the available events to the consumer, must only be called by a single thread at a time
+     *
+     * @return Number of events passed to the consumer
+     */
+    int drain(Consumer consumer) {
+        int count = 0;
+        while (true) {
+            int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return count;
+            }
+            String threadName = threadNames[index];
+            int depth = depths[index];
+            String message = messages[index];
+            threadNames[index] = null;
+            messages[index] = null;
+            // Frees the slot for the producer one lap ahead
+            sequences.lazySet(index, head + mask + 1);
+            head++;
+            count++;
+            consumer.accept(threadName, depth, message);
+        }
+    }
+
+    long getDropped() {
+        return dropped.sum();
+    }
+}
@@ -1,6 +1,13 @@
 package com.github.dxee.dject.trace;
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
 
 import com.google.common.base.Strings;
 import com.google.inject.spi.ProvisionListener;
@@ -15,16 +22,26 @@ import com.google.inject.spi.ProvisionListener;
  * <code>
  * bindListener(Matchers.any(), TracingProvisionListener.createDefault());
  * </code>
+ * <p>
+ * Nesting is tracked per thread.  By default messages are written synchronously by the provisioning
+ * thread, with {@link Builder#asynchronous(int)} they are queued in a preallocated ring buffer and
+ * written by a background thread, so tracing doesn't hold up provisioning.
  */
-public class TracingProvisionListener implements ProvisionListener {
+public class TracingProvisionListener implements ProvisionListener, AutoCloseable {
+    private static final long DRAIN_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
 
-    private int indent = 0;
+    private final ThreadLocal<int[]> indent = ThreadLocal.withInitial(() -> new int[1]);
 
     private final String prefix;
     private final int indentAmount;
     private final BindingFormatter beforeFormatter;
     private final BindingFormatter afterFormatter;
     private final PrintStream stream;
+    private final boolean ownsStream;
+    private final TraceRingBuffer buffer;
+    private final Thread writer;
+    private final Object drainLock = new Object();
+    private volatile boolean closed;
 
     private ErrorFormatter errorFormatter;
 
@@ -59,6 +76,8 @@ public class TracingProvisionListener implements ProvisionListener {
         private BindingFormatter afterFormatter = EMPTY_BINDING_FORMATTER;
         private ErrorFormatter errorFormatter = SIMPLE_ERROR_FORMATTER;
         private PrintStream stream = System.out;
+        private boolean ownsStream;
+        private int bufferCapacity;
 
         /**
          * Provide a custom formatter for messages written before a type is provisioned
@@ -111,6 +130,36 @@ public class TracingProvisionListener implements ProvisionListener {
          */
         public Builder writeTo(PrintStream stream) {
             this.stream = stream;
+            this.ownsStream = false;
+            return this;
+        }
+
+        /**
+         * Write messages to a file, which is replaced if it exists and closed by
+         * {@link TracingProvisionListener#close()}
+         *
+         * @param file
+         */
+        public Builder writeTo(Path file) {
+            try {
+                this.stream = new PrintStream(new BufferedOutputStream(Files.newOutputStream(file)), false, "UTF-8");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.ownsStream = true;
+            return this;
+        }
+
+        /**
+         * Queue messages in a ring buffer of the given capacity and write them on a background
+         * thread.  Messages are dropped while the buffer is full, see
+         * {@link TracingProvisionListener#getDroppedMessages()}.  Lines are tagged with the name
+         * of the provisioning thread.
+         *
+         * @param capacity Number of messages the buffer holds, rounded up to a power of two
+         */
+        public Builder asynchronous(int capacity) {
+            this.bufferCapacity = capacity;
             return this;
         }
 
@@ -152,26 +201,98 @@ public class TracingProvisionListener implements ProvisionListener {
         this.errorFormatter = builder.errorFormatter;
         this.prefix = builder.prefix;
         this.stream = builder.stream;
+        this.ownsStream = builder.ownsStream;
+        if (builder.bufferCapacity > 0) {
+            this.buffer = new TraceRingBuffer(builder.bufferCapacity);
+            this.writer = new Thread(this::writeQueued, "dject-trace-writer");
+            this.writer.setDaemon(true);
+            this.writer.start();
+        } else {
+            this.buffer = null;
+            this.writer = null;
+        }
     }
 
     @Override
     public <T> void onProvision(ProvisionInvocation<T> provision) {
-        writeString(beforeFormatter.format(provision));
-        indent += indentAmount;
+        int[] depth = indent.get();
+        writeString(depth[0], beforeFormatter.format(provision));
+        depth[0] += indentAmount;
         try {
             provision.provision();
-            writeString(afterFormatter.format(provision));
+            writeString(depth[0], afterFormatter.format(provision));
         } catch (Throwable t) {
-            writeString(errorFormatter.format(provision, t));
+            writeString(depth[0], errorFormatter.format(provision, t));
             throw t;
         } finally {
-            indent -= indentAmount;
+            depth[0] -= indentAmount;
         }
     }
 
-    private void writeString(String str) {
+    private void writeString(int depth, String str) {
         if (str != null && !str.isEmpty()) {
-            stream.println(prefix + Strings.repeat(" ", indent) + str);
+            if (buffer != null) {
+                buffer.offer(Thread.currentThread().getName(), depth, str);
+            } else {
+                stream.println(prefix + Strings.repeat(" ", depth) + str);
+            }
+        }
+    }
+
+    private void writeQueued() {
+        while (!closed) {
+            if (drain() == 0) {
+                LockSupport.parkNanos(this, DRAIN_INTERVAL_NANOS);
+            }
+        }
+    }
+
+    private int drain() {
+        synchronized (drainLock) {
+            int count = buffer.drain((threadName, depth, message) ->
+                    stream.println(prefix + "[" + threadName + "] " + Strings.repeat(" ", depth) + message));
+            if (count > 0) {
+                stream.flush();
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Write all queued messages
+     */
+    public void flush() {
+        if (buffer != null) {
+            drain();
+        }
+        stream.flush();
+    }
+
+    /**
+     * @return Number of messages dropped because the ring buffer was full
+     */
+    public long getDroppedMessages() {
+        return buffer != null ? buffer.getDropped() : 0;
+    }
+
+    /**
+     * Stop the background writer once the queued messages are written, and close the
+     * stream if it was opened for a file
+     */
+    @Override
+    public void close() {
+        closed = true;
+        if (writer != null) {
+            LockSupport.unpark(writer);
+            try {
+                writer.join(TimeUnit.SECONDS.toMillis(5));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        flush();
+        if (ownsStream) {
+            stream.close();
         }
     }
 
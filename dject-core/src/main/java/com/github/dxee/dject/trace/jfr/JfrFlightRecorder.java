@@ -0,0 +1,139 @@
+package com.github.dxee.dject.trace.jfr;
+
+import com.github.dxee.dject.trace.FlightRecorder;
+import com.google.inject.Binding;
+import com.google.inject.Scope;
+import com.google.inject.Scopes;
+import com.google.inject.spi.BindingScopingVisitor;
+import jdk.jfr.EventType;
+
+import java.lang.annotation.Annotation;
+
+/**
+ * {@link FlightRecorder} backed by jdk.jfr events.  Only loaded through {@link FlightRecorder#get()}
+ * when the JVM provides jdk.jfr, don't reference it directly.
+ */
+public final class JfrFlightRecorder extends FlightRecorder {
+    private static final BindingScopingVisitor<String> SCOPE_NAME = new BindingScopingVisitor<String>() {
+        @Override
+        public String visitEagerSingleton() {
+            return "EagerSingleton";
+        }
+
+        @Override
+        public String visitScope(Scope scope) {
+            return scope == Scopes.SINGLETON ? "Singleton" : scope.toString();
+        }
+
+        @Override
+        public String visitScopeAnnotation(Class<? extends Annotation> scopeAnnotation) {
+            return scopeAnnotation.getSimpleName();
+        }
+
+        @Override
+        public String visitNoScoping() {
+            return "Unscoped";
+        }
+    };
+
+    // Checking the event types avoids allocating events no recording is interested in
+    private final EventType provisionType = EventType.getEventType(ProvisionEvent.class);
+    private final EventType lifecycleActionType = EventType.getEventType(LifecycleActionEvent.class);
+    private final EventType stateChangeType = EventType.getEventType(LifecycleStateChangeEvent.class);
+    private final EventType scopeCleanupType = EventType.getEventType(ScopeCleanupEvent.class);
+
+    public JfrFlightRecorder() {
+    }
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public Object beginProvision() {
+        if (!provisionType.isEnabled()) {
+            return null;
+        }
+        ProvisionEvent event = new ProvisionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endProvision(Object event, Binding<?> binding) {
+        if (event == null) {
+            return;
+        }
+        ProvisionEvent provisionEvent = (ProvisionEvent) event;
+        provisionEvent.end();
+        // Formatting is left until the event is known to pass the threshold
+        if (provisionEvent.shouldCommit()) {
+            provisionEvent.key = binding.getKey().toString();
+            provisionEvent.scope = binding.acceptScopingVisitor(SCOPE_NAME);
+            provisionEvent.commit();
+        }
+    }
+
+    @Override
+    public Object beginLifecycleAction() {
+        if (!lifecycleActionType.isEnabled()) {
+            return null;
+        }
+        LifecycleActionEvent event = new LifecycleActionEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endLifecycleAction(Object event, String description, String phase) {
+        if (event == null) {
+            return;
+        }
+        LifecycleActionEvent actionEvent = (LifecycleActionEvent) event;
+        actionEvent.end();
+        if (actionEvent.shouldCommit()) {
+            actionEvent.action = description;
+            actionEvent.phase = phase;
+            actionEvent.commit();
+        }
+    }
+
+    @Override
+    public void lifecycleStateChange(Object source, Enum<?> from, Enum<?> to) {
+        if (!stateChangeType.isEnabled()) {
+            return;
+        }
+        LifecycleStateChangeEvent event = new LifecycleStateChangeEvent();
+        if (event.shouldCommit()) {
+            event.manager = source.toString();
+            event.from = from.name();
+            event.to = to.name();
+            event.commit();
+        }
+    }
+
+    @Override
+    public Object beginScopeCleanup() {
+        if (!scopeCleanupType.isEnabled()) {
+            return null;
+        }
+        ScopeCleanupEvent event = new ScopeCleanupEvent();
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endScopeCleanup(Object event, String scope, int actions) {
+        if (event == null) {
+            return;
+        }
+        ScopeCleanupEvent cleanupEvent = (ScopeCleanupEvent) event;
+        cleanupEvent.end();
+        if (cleanupEvent.shouldCommit()) {
+            cleanupEvent.scope = scope;
+            cleanupEvent.actions = actions;
+            cleanupEvent.commit();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.dxee.dject.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.github.dxee.dject.LifecycleAction")
+@Label("Lifecycle Action")
+@Category("Dject")
+@Description("Invocation of a @PostConstruct or @PreDestroy method")
+@StackTrace(false)
+@Threshold("10 us")
+final class LifecycleActionEvent extends jdk.jfr.Event {
+    @Label("Action")
+    String action;
+
+    @Label("Phase")
+    String phase;
+}
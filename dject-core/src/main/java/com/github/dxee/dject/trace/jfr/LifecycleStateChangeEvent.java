@@ -0,0 +1,21 @@
+package com.github.dxee.dject.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.dxee.dject.LifecycleStateChange")
+@Label("Lifecycle State Change")
+@Category("Dject")
+@Description("Injector lifecycle moving from one state to the next")
+final class LifecycleStateChangeEvent extends jdk.jfr.Event {
+    @Label("Lifecycle Manager")
+    String manager;
+
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+}
@@ -0,0 +1,22 @@
+package com.github.dxee.dject.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.github.dxee.dject.Provision")
+@Label("Provision")
+@Category("Dject")
+@Description("Instance provisioned by Guice, including its dependencies and @PostConstruct methods")
+@StackTrace(false)
+@Threshold("10 us")
+final class ProvisionEvent extends jdk.jfr.Event {
+    @Label("Key")
+    String key;
+
+    @Label("Scope")
+    String scope;
+}
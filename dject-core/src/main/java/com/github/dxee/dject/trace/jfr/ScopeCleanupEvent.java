@@ -0,0 +1,18 @@
+package com.github.dxee.dject.trace.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.github.dxee.dject.ScopeCleanup")
+@Label("Scope Cleanup")
+@Category("Dject")
+@Description("Cleanup actions run for the singletons on shutdown or for a scope once it is closed")
+final class ScopeCleanupEvent extends jdk.jfr.Event {
+    @Label("Scope")
+    String scope;
+
+    @Label("Actions")
+    int actions;
+}
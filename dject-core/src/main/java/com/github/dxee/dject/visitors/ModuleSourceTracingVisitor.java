@@ -1,5 +1,6 @@
 package com.github.dxee.dject.visitors;
 
+import com.github.dxee.dject.spi.ConcurrentElementVisitor;
 import com.google.inject.spi.DefaultElementVisitor;
 import com.google.inject.spi.Element;
 import com.google.inject.spi.ElementSource;
@@ -7,7 +8,7 @@ import com.google.inject.spi.ElementSource;
 /**
  * Visitor for logging the 'path' through which each binding was created
  */
-public class ModuleSourceTracingVisitor  extends DefaultElementVisitor<String> { 
+public class ModuleSourceTracingVisitor  extends DefaultElementVisitor<String> implements ConcurrentElementVisitor { 
     @Override 
     protected String visitOther(Element element) {
         Object source = element.getSource();
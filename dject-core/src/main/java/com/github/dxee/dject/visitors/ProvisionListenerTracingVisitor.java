@@ -1,9 +1,11 @@
 package com.github.dxee.dject.visitors;
 
+import com.github.dxee.dject.spi.ConcurrentElementVisitor;
 import com.google.inject.spi.DefaultElementVisitor;
 import com.google.inject.spi.ProvisionListenerBinding;
 
-public class ProvisionListenerTracingVisitor extends DefaultElementVisitor<String> { 
+public class ProvisionListenerTracingVisitor extends DefaultElementVisitor<String>
+        implements ConcurrentElementVisitor { 
     public String visit(ProvisionListenerBinding binding) {
         return String.format("Provision listener %s matching %s at %s",  
             binding.getListeners(), binding.getBindingMatcher(), binding.getSource()); 
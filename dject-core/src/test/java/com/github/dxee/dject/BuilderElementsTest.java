@@ -0,0 +1,173 @@
+package com.github.dxee.dject;
+
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.github.dxee.dject.spi.ConcurrentElementVisitor;
+import com.google.inject.AbstractModule;
+import com.google.inject.Binding;
+import com.google.inject.Key;
+import com.google.inject.Stage;
+import com.google.inject.name.Names;
+import com.google.inject.spi.DefaultElementVisitor;
+import com.google.inject.spi.Element;
+import com.google.inject.spi.InstanceBinding;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BuilderElementsTest {
+    private static class CountingModule extends AbstractModule {
+        private final int bindings;
+        final AtomicInteger configured = new AtomicInteger();
+
+        CountingModule(int bindings) {
+            this.bindings = bindings;
+        }
+
+        @Override
+        protected void configure() {
+            configured.incrementAndGet();
+            for (int i = 0; i < bindings; i++) {
+                bind(String.class).annotatedWith(Names.named("key" + i)).toInstance("value" + i);
+            }
+        }
+    }
+
+    private static class KeyVisitor extends DefaultElementVisitor<String> implements ConcurrentElementVisitor {
+        @Override
+        public <T> String visit(Binding<T> binding) {
+            return binding.getKey().toString();
+        }
+    }
+
+    private static class StatefulVisitor extends DefaultElementVisitor<Integer> {
+        private final Set<Thread> threads = new HashSet<>();
+        private int count;
+
+        @Override
+        public <T> Integer visit(Binding<T> binding) {
+            threads.add(Thread.currentThread());
+            return count++;
+        }
+    }
+
+    @Test
+    public void modulesAreConfiguredOnceForAllVisitors() {
+        CountingModule module = new CountingModule(10);
+        List<String> keys = new ArrayList<>();
+        Dject injector = Dject.newBuilder()
+                .withModule(module)
+                .withTraceEachKey()
+                .withTraceEachBinding()
+                .withWarnOfStaticInjections()
+                .withWarnOfToInstanceInjections()
+                .withBatchedElementVisitor(new KeyVisitor(), keys::add)
+                .build();
+
+        Assert.assertEquals(1, module.configured.get());
+        Assert.assertEquals(10, keys.size());
+        injector.shutdown();
+    }
+
+    @Test
+    public void visitorsSeeTheModuleAtTheTimeTheyWereAdded() {
+        List<String> before = new ArrayList<>();
+        List<String> after = new ArrayList<>();
+        Dject.newBuilder()
+                .withModule(new CountingModule(1))
+                .withBatchedElementVisitor(new KeyVisitor(), before::add)
+                .withCombineModules(new CountingModule(0) {
+                    @Override
+                    protected void configure() {
+                        bind(Integer.class).toInstance(1);
+                    }
+                })
+                .withBatchedElementVisitor(new KeyVisitor(), after::add)
+                .build();
+
+        Assert.assertEquals(1, before.size());
+        Assert.assertEquals(2, after.size());
+        Assert.assertTrue(after.contains(Key.get(Integer.class).toString()));
+    }
+
+    @Test
+    public void largeModulesAreVisitedInElementOrder() {
+        CountingModule module = new CountingModule(10000);
+        List<String> keys = new ArrayList<>();
+        Dject.Builder builder = Dject.newBuilder()
+                .withStage(Stage.TOOL)
+                .withModule(module)
+                .withBatchedElementVisitor(new KeyVisitor(), keys::add);
+        List<Element> elements = builder.getElements();
+
+        Assert.assertEquals(1, module.configured.get());
+        Assert.assertEquals(10000, keys.size());
+        for (int i = 0; i < elements.size(); i++) {
+            Assert.assertEquals(elements.get(i).acceptVisitor(new KeyVisitor()), keys.get(i));
+        }
+    }
+
+    @Test
+    public void visitorsAreCalledSeriallyUnlessConcurrent() {
+        StatefulVisitor visitor = new StatefulVisitor();
+        List<Integer> counts = new ArrayList<>();
+        Dject.newBuilder()
+                .withModule(new CountingModule(10000))
+                .withBatchedElementVisitor(new KeyVisitor())
+                .withBatchedElementVisitor(visitor, counts::add)
+                .getElements();
+
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), visitor.threads);
+        Assert.assertEquals(10000, counts.size());
+        for (int i = 0; i < counts.size(); i++) {
+            Assert.assertEquals(i, (int) counts.get(i));
+        }
+    }
+
+    @Test
+    public void eachElementVisitorIsCalledRightAway() {
+        List<String> keys = new ArrayList<>();
+        Dject.newBuilder()
+                .withModule(new CountingModule(3))
+                .withEachElementVister(new KeyVisitor(), keys::add);
+
+        Assert.assertEquals(3, keys.size());
+    }
+
+    @Test
+    public void elementsAreRecordedInToolStage() {
+        List<Element> elements = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Stage.class).annotatedWith(Names.named("recorded")).toInstance(currentStage());
+                    }
+                })
+                .getElements();
+
+        Assert.assertEquals(1, elements.size());
+        Assert.assertEquals(Stage.TOOL, ((InstanceBinding<?>) elements.get(0)).getInstance());
+    }
+
+    @Test
+    public void injectorReusesTheRecordedElements() {
+        CountingModule module = new CountingModule(10);
+        Dject injector = Dject.newBuilder()
+                .withModule(module)
+                .withFeature(DjectFeatures.LAZY_SINGLETONS, true)
+                .withFeature(DjectFeatures.PARALLEL_EAGER_SINGLETONS, true)
+                .withFeature(DjectFeatures.WARMUP_THREADS, 1)
+                .withTraceEachKey()
+                .build();
+
+        Assert.assertEquals(1, module.configured.get());
+        Assert.assertEquals("value3", injector.getInstance(Key.get(String.class, Names.named("key3"))));
+        injector.shutdown();
+    }
+}
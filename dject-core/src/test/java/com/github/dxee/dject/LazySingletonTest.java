@@ -0,0 +1,147 @@
+package com.github.dxee.dject;
+
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.Stage;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class LazySingletonTest {
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+    @Singleton
+    public static class Used {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init used");
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("destroy used");
+        }
+    }
+
+    @Singleton
+    public static class Unused {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init unused");
+        }
+    }
+
+    public interface Service {
+    }
+
+    @Singleton
+    public static class ServiceImpl implements Service {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init service");
+        }
+    }
+
+    public static class Eager {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init eager");
+        }
+    }
+
+    @Before
+    public void setUp() {
+        EVENTS.clear();
+    }
+
+    @Test
+    public void lazySingletonsAreEnabledBySystemProperty() {
+        System.setProperty(DjectFeatures.LAZY_SINGLETONS.getKey(), "true");
+        try {
+            Dject.newBuilder()
+                    .withStage(Stage.PRODUCTION)
+                    .withModule(new AbstractModule() {
+                        @Override
+                        protected void configure() {
+                            bind(Unused.class);
+                        }
+                    })
+                    .build();
+        } finally {
+            System.clearProperty(DjectFeatures.LAZY_SINGLETONS.getKey());
+        }
+
+        Assert.assertEquals(Collections.emptyList(), EVENTS);
+    }
+
+    @Test
+    public void singletonsAreBuiltOnFirstUse() {
+        Dject injector = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withFeature(DjectFeatures.LAZY_SINGLETONS, true)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Used.class);
+                        bind(Unused.class);
+                        bind(Eager.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(Arrays.asList("init eager"), EVENTS);
+        Assert.assertSame(injector.getInstance(Used.class), injector.getInstance(Used.class));
+        Assert.assertEquals(Arrays.asList("init eager", "init used"), EVENTS);
+        Assert.assertEquals(Collections.singleton(Key.get(Unused.class)), injector.getUnmaterializedLazySingletons());
+
+        injector.shutdown();
+        Assert.assertEquals(Arrays.asList("init eager", "init used", "destroy used"), EVENTS);
+    }
+
+    @Test
+    public void singletonsAreEagerInProductionByDefault() {
+        Dject injector = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Used.class);
+                        bind(Unused.class);
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(2, EVENTS.size());
+        Assert.assertTrue(injector.getUnmaterializedLazySingletons().isEmpty());
+    }
+
+    @Test
+    public void singletonTargetOfLinkedBindingIsBuiltOnFirstUse() {
+        Dject injector = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withFeature(DjectFeatures.LAZY_SINGLETONS, true)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Service.class).to(ServiceImpl.class);
+                    }
+                })
+                .build();
+
+        Assert.assertTrue(EVENTS.isEmpty());
+        Assert.assertEquals(Collections.singleton(Key.get(ServiceImpl.class)),
+                injector.getUnmaterializedLazySingletons());
+        Assert.assertSame(injector.getInstance(Service.class), injector.getInstance(ServiceImpl.class));
+        Assert.assertEquals(Arrays.asList("init service"), EVENTS);
+        Assert.assertTrue(injector.getUnmaterializedLazySingletons().isEmpty());
+    }
+}
@@ -0,0 +1,204 @@
+package com.github.dxee.dject;
+
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.Provides;
+import com.google.inject.Stage;
+import com.google.inject.name.Named;
+import com.google.inject.name.Names;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelEagerSingletonTest {
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch barrier;
+
+    public static class Independent {
+        final boolean concurrent;
+
+        public Independent() throws InterruptedException {
+            barrier.countDown();
+            concurrent = barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class IndependentA extends Independent {
+        public IndependentA() throws InterruptedException {
+        }
+    }
+
+    public static class IndependentB extends Independent {
+        public IndependentB() throws InterruptedException {
+        }
+    }
+
+    public static class IndependentC extends Independent {
+        public IndependentC() throws InterruptedException {
+        }
+    }
+
+    public interface ServiceA {
+    }
+
+    public interface ServiceB {
+    }
+
+    @Singleton
+    public static class ServiceAImpl extends Independent implements ServiceA {
+        public ServiceAImpl() throws InterruptedException {
+        }
+    }
+
+    @Singleton
+    public static class ServiceBImpl extends Independent implements ServiceB {
+        public ServiceBImpl() throws InterruptedException {
+        }
+    }
+
+    @Singleton
+    public static class Child {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init child");
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("destroy child");
+        }
+    }
+
+    public static class Middle {
+        @Inject
+        public Middle(Child child) {
+        }
+    }
+
+    public static class Parent {
+        @Inject
+        public Parent(Middle middle) {
+        }
+
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init parent");
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("destroy parent");
+        }
+    }
+
+    @Before
+    public void setUp() {
+        EVENTS.clear();
+    }
+
+    @Test
+    public void independentSingletonsAreInstantiatedConcurrently() {
+        barrier = new CountDownLatch(3);
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.PARALLEL_EAGER_SINGLETONS, true)
+                .withFeature(DjectFeatures.EAGER_SINGLETON_PARALLELISM, 3)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(IndependentA.class).asEagerSingleton();
+                        bind(IndependentB.class).asEagerSingleton();
+                        bind(IndependentC.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(0, barrier.getCount());
+        Assert.assertTrue(injector.getInstance(IndependentA.class).concurrent);
+        Assert.assertTrue(injector.getInstance(IndependentB.class).concurrent);
+        Assert.assertTrue(injector.getInstance(IndependentC.class).concurrent);
+        Assert.assertSame(injector.getInstance(IndependentA.class), injector.getInstance(IndependentA.class));
+    }
+
+    @Test
+    public void lifecycleFollowsDependencyOrder() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.PARALLEL_EAGER_SINGLETONS, true)
+                .withFeature(DjectFeatures.EAGER_SINGLETON_PARALLELISM, 4)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Parent.class).asEagerSingleton();
+                        bind(Child.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(Arrays.asList("init child", "init parent"), EVENTS);
+        injector.shutdown();
+        Assert.assertEquals(Arrays.asList("init child", "init parent", "destroy parent", "destroy child"), EVENTS);
+    }
+
+    @Test
+    public void productionSingletonsAreInstantiatedBeforeStart() {
+        Dject injector = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withFeature(DjectFeatures.PARALLEL_EAGER_SINGLETONS, true)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Parent.class).in(Singleton.class);
+                        bind(Child.class);
+                    }
+
+                    @Provides
+                    @Singleton
+                    @Named("greeting")
+                    String getGreeting(Child child) {
+                        EVENTS.add("provides greeting");
+                        return "hello";
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(3, EVENTS.size());
+        Assert.assertTrue(EVENTS.indexOf("init child") < EVENTS.indexOf("init parent"));
+        Assert.assertTrue(EVENTS.indexOf("init child") < EVENTS.indexOf("provides greeting"));
+        Assert.assertEquals("hello", injector.getInstance(Key.get(String.class,
+                Names.named("greeting"))));
+        Assert.assertEquals(3, EVENTS.size());
+    }
+
+    @Test
+    public void singletonTargetsOfLinkedBindingsAreInstantiatedConcurrently() {
+        barrier = new CountDownLatch(2);
+        Dject injector = Dject.newBuilder()
+                .withStage(Stage.PRODUCTION)
+                .withFeature(DjectFeatures.PARALLEL_EAGER_SINGLETONS, true)
+                .withFeature(DjectFeatures.EAGER_SINGLETON_PARALLELISM, 2)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(ServiceA.class).to(ServiceAImpl.class);
+                        bind(ServiceB.class).to(ServiceBImpl.class);
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(0, barrier.getCount());
+        Assert.assertTrue(injector.getInstance(ServiceAImpl.class).concurrent);
+        Assert.assertTrue(injector.getInstance(ServiceBImpl.class).concurrent);
+        Assert.assertSame(injector.getInstance(ServiceA.class), injector.getInstance(ServiceAImpl.class));
+    }
+}
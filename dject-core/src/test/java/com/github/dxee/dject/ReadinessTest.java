@@ -0,0 +1,85 @@
+package com.github.dxee.dject;
+
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class ReadinessTest {
+    private static volatile CountDownLatch release;
+    private static final AtomicBoolean SLOW_CREATED = new AtomicBoolean();
+
+    @Singleton
+    public static class Database {
+    }
+
+    @Singleton
+    public static class Server {
+        @Inject
+        public Server(Database database) {
+        }
+    }
+
+    @Singleton
+    public static class SlowCache {
+        public SlowCache() throws InterruptedException {
+            release.await(5, TimeUnit.SECONDS);
+            SLOW_CREATED.set(true);
+        }
+    }
+
+    @Test
+    public void criticalPathIsReadyBeforeBackgroundSingletons() throws Exception {
+        release = new CountDownLatch(1);
+        SLOW_CREATED.set(false);
+        Dject injector = Dject.newBuilder()
+                .withCriticalKeys(Key.get(Server.class))
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Server.class).asEagerSingleton();
+                        bind(Database.class).asEagerSingleton();
+                        bind(SlowCache.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Readiness readiness = injector.getReadiness();
+        Assert.assertSame(readiness, injector.getInstance(Readiness.class));
+        Assert.assertTrue(readiness.isCriticalPathReady());
+        Assert.assertFalse(readiness.isReady());
+        Assert.assertFalse(SLOW_CREATED.get());
+        // Database was built as a dependency of the critical Server
+        Assert.assertEquals(1, readiness.getBackgroundCount());
+
+        release.countDown();
+        readiness.whenReady().toCompletableFuture().get(5, TimeUnit.SECONDS);
+        Assert.assertTrue(readiness.isReady());
+        Assert.assertTrue(SLOW_CREATED.get());
+        Assert.assertEquals(1, readiness.getBackgroundCompleted());
+        injector.shutdown();
+    }
+
+    @Test
+    public void readyOnceBuiltWithoutCriticalKeys() {
+        release = new CountDownLatch(0);
+        Dject injector = Dject.newBuilder()
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(SlowCache.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Assert.assertTrue(injector.getReadiness().isCriticalPathReady());
+        Assert.assertTrue(injector.getReadiness().isReady());
+        Assert.assertEquals(0, injector.getReadiness().getBackgroundCount());
+    }
+}
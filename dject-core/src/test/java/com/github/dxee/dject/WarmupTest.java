@@ -0,0 +1,78 @@
+package com.github.dxee.dject;
+
+import com.github.dxee.dject.lifecycle.LifecycleAction;
+import com.github.dxee.dject.spi.LifecycleFeature;
+import com.google.inject.AbstractModule;
+import com.google.inject.multibindings.Multibinder;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class WarmupTest {
+    private static final Map<Class<?>, String> SCANNED_BY = new ConcurrentHashMap<>();
+
+    public static class RecordingFeature implements LifecycleFeature {
+        @Override
+        public List<LifecycleAction> getActionsForType(Class<?> type) {
+            SCANNED_BY.putIfAbsent(type, Thread.currentThread().getName());
+            return Collections.emptyList();
+        }
+    }
+
+    public static class Service {
+        private boolean initialized;
+
+        @PostConstruct
+        public void init() {
+            initialized = true;
+        }
+    }
+
+    @Test
+    public void lifecycleActionsAreFoundBeforeFirstProvision() throws InterruptedException {
+        SCANNED_BY.clear();
+        Dject injector = Dject.newBuilder()
+                .withWarmup(2)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Service.class);
+                        Multibinder.newSetBinder(binder(), LifecycleFeature.class)
+                                .addBinding().toInstance(new RecordingFeature());
+                    }
+                })
+                .build();
+
+        for (int i = 0; i < 500 && !SCANNED_BY.containsKey(Service.class); i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(SCANNED_BY.get(Service.class).startsWith("dject-warmup-"));
+        Assert.assertTrue(injector.getInstance(Service.class).initialized);
+        injector.shutdown();
+    }
+
+    @Test
+    public void noWarmupByDefault() {
+        SCANNED_BY.clear();
+        Dject injector = Dject.newBuilder()
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Service.class);
+                        Multibinder.newSetBinder(binder(), LifecycleFeature.class)
+                                .addBinding().toInstance(new RecordingFeature());
+                    }
+                })
+                .build();
+
+        Assert.assertFalse(SCANNED_BY.containsKey(Service.class));
+        Assert.assertTrue(injector.getInstance(Service.class).initialized);
+        Assert.assertEquals(Thread.currentThread().getName(), SCANNED_BY.get(Service.class));
+        injector.shutdown();
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.internal.JSR250LifecycleAction.InvocationStrategy;
+import com.github.dxee.dject.internal.JSR250LifecycleAction.ValidationMode;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+
+public class JSR250LifecycleActionTest {
+    public static class PublicTarget {
+        int count;
+
+        @PostConstruct
+        public void init() {
+            count++;
+        }
+    }
+
+    private static class PrivateTarget {
+        int count;
+
+        @PostConstruct
+        private void init() {
+            count++;
+        }
+    }
+
+    public static class ParentTarget {
+        String called;
+
+        @PostConstruct
+        public void init() {
+            called = "parent";
+        }
+    }
+
+    public static class ChildTarget extends ParentTarget {
+        @Override
+        public void init() {
+            called = "child";
+        }
+    }
+
+    public static class FailingTarget {
+        @PostConstruct
+        public void init() {
+            throw new IllegalStateException("failed");
+        }
+    }
+
+    public static class CheckedFailingTarget {
+        @PostConstruct
+        public void init() throws IOException {
+            throw new IOException("failed");
+        }
+    }
+
+    public static class ReturningTarget {
+        int count;
+
+        @PostConstruct
+        public String init() {
+            count++;
+            return "done";
+        }
+    }
+
+    private static JSR250LifecycleAction create(Class<?> type, ValidationMode mode, InvocationStrategy strategy)
+            throws NoSuchMethodException {
+        return new JSR250LifecycleAction(PostConstruct.class, type.getDeclaredMethod("init"), mode, strategy);
+    }
+
+    @Test
+    public void testAllStrategiesInvokeMethod() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            JSR250LifecycleAction action = create(PublicTarget.class, ValidationMode.STRICT, strategy);
+            Assert.assertEquals(strategy, action.getInvocationStrategy());
+            PublicTarget target = new PublicTarget();
+            action.call(target);
+            action.call(target);
+            Assert.assertEquals(2, target.count);
+        }
+    }
+
+    @Test
+    public void testPrivateMethod() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            PrivateTarget target = new PrivateTarget();
+            create(PrivateTarget.class, ValidationMode.STRICT, strategy).call(target);
+            Assert.assertEquals(1, target.count);
+        }
+    }
+
+    @Test
+    public void testVirtualDispatch() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            ChildTarget target = new ChildTarget();
+            create(ParentTarget.class, ValidationMode.STRICT, strategy).call(target);
+            Assert.assertEquals("child", target.called);
+        }
+    }
+
+    @Test
+    public void testNonVoidReturnTypeInLaxMode() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            ReturningTarget target = new ReturningTarget();
+            create(ReturningTarget.class, ValidationMode.LAX, strategy).call(target);
+            Assert.assertEquals(1, target.count);
+        }
+    }
+
+    @Test
+    public void testRuntimeExceptionIsRethrown() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            try {
+                create(FailingTarget.class, ValidationMode.STRICT, strategy).call(new FailingTarget());
+                Assert.fail("expected exception from " + strategy);
+            } catch (IllegalStateException e) {
+                Assert.assertEquals("failed", e.getMessage());
+            }
+        }
+    }
+
+    @Test
+    public void testCheckedExceptionIsWrapped() throws Exception {
+        for (InvocationStrategy strategy : InvocationStrategy.values()) {
+            try {
+                create(CheckedFailingTarget.class, ValidationMode.LAX, strategy).call(new CheckedFailingTarget());
+                Assert.fail("expected exception from " + strategy);
+            } catch (InvocationTargetException e) {
+                Assert.assertTrue(e.getCause() instanceof IOException);
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.github.dxee.dject.internal;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.Key;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class ParallelShutdownExecutorTest {
+    public static class Failing {
+    }
+
+    public static class Other {
+    }
+
+    private static class Task implements ParallelShutdownExecutor.ShutdownTask {
+        private final Key<?> key;
+        private final Runnable action;
+
+        Task(Key<?> key, Runnable action) {
+            this.key = key;
+            this.action = action;
+        }
+
+        @Override
+        public Key<?> getKey() {
+            return key;
+        }
+
+        @Override
+        public void run(ShutdownBudget budget) {
+            action.run();
+        }
+
+        @Override
+        public void skip(ShutdownBudget budget) {
+        }
+    }
+
+    @Test
+    public void unkeyedTasksRunAfterAnErrorWithoutDeadline() {
+        Injector injector = Guice.createInjector();
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        ParallelShutdownExecutor executor = new ParallelShutdownExecutor(injector, 2);
+
+        executor.execute(Arrays.asList(
+                new Task(Key.get(Failing.class), () -> {
+                    throw new AssertionError("failed");
+                }),
+                new Task(Key.get(Other.class), () -> events.add("other")),
+                new Task(null, () -> events.add("unkeyed"))),
+                ShutdownBudget.UNBOUNDED);
+
+        Assert.assertEquals(Arrays.asList("other", "unkeyed"), events);
+    }
+}
@@ -0,0 +1,100 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.Dject;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ReferenceCleanerTest {
+    private static final class CleanableReference extends WeakReference<Object> implements ReferenceCleaner.Cleanable {
+        private final CountDownLatch cleaned;
+
+        CleanableReference(Object referent, CountDownLatch cleaned) {
+            super(referent, ReferenceCleaner.queue());
+            this.cleaned = cleaned;
+        }
+
+        @Override
+        public void clean() {
+            cleaned.countDown();
+        }
+    }
+
+    private static final class BlockingReference extends WeakReference<Object>
+            implements ReferenceCleaner.BlockingCleanable {
+        private final CountDownLatch started;
+        private final CountDownLatch release;
+
+        BlockingReference(Object referent, CountDownLatch started, CountDownLatch release) {
+            super(referent, ReferenceCleaner.queue());
+            this.started = started;
+            this.release = release;
+        }
+
+        @Override
+        public void clean() {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Test
+    public void referenceIsCleanedOnceReferentIsCollected() throws InterruptedException {
+        CountDownLatch cleaned = new CountDownLatch(1);
+        CleanableReference ref = new CleanableReference(new Object(), cleaned);
+        for (int i = 0; i < 50 && cleaned.getCount() > 0; i++) {
+            System.gc();
+            cleaned.await(100, TimeUnit.MILLISECONDS);
+        }
+        Assert.assertEquals(0, cleaned.getCount());
+        Assert.assertNull(ref.get());
+    }
+
+    @Test
+    public void injectorsDoNotStartReferenceThreads() {
+        List<Dject> injectors = new ArrayList<>();
+        injectors.add(Dject.newBuilder().withModule(binder -> { }).build());
+        int threads = Thread.activeCount();
+        for (int i = 0; i < 20; i++) {
+            injectors.add(Dject.newBuilder().withModule(binder -> { }).build());
+        }
+        Assert.assertTrue(Thread.activeCount() - threads < 20);
+        injectors.forEach(Dject::shutdown);
+    }
+
+    @Test
+    public void blockedCleanupDoesNotHoldUpOtherReferences() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingReference blocking = new BlockingReference(new Object(), started, release);
+        try {
+            awaitCollection(started);
+            Assert.assertEquals(0, started.getCount());
+
+            CountDownLatch cleaned = new CountDownLatch(1);
+            CleanableReference ref = new CleanableReference(new Object(), cleaned);
+            awaitCollection(cleaned);
+            Assert.assertEquals(0, cleaned.getCount());
+            Assert.assertNull(ref.get());
+        } finally {
+            release.countDown();
+        }
+        Assert.assertNull(blocking.get());
+    }
+
+    private static void awaitCollection(CountDownLatch latch) throws InterruptedException {
+        for (int i = 0; i < 50 && latch.getCount() > 0; i++) {
+            System.gc();
+            latch.await(100, TimeUnit.MILLISECONDS);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.github.dxee.dject.internal;
+
+import com.github.dxee.dject.lifecycle.LifecycleAction;
+import com.google.inject.Binding;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class UnscopedCleanupRegistryTest {
+    private static final int ROUNDS = 3;
+    private static final int INSTANCES_PER_ROUND = 20_000;
+
+    public static class Unscoped {
+        final byte[] payload = new byte[64];
+    }
+
+    @Test
+    public void registryDoesNotGrowWithCollectedInstances() throws Exception {
+        Injector injector = Guice.createInjector();
+        Binding<Unscoped> binding = injector.getBinding(Unscoped.class);
+        AtomicInteger destroyed = new AtomicInteger();
+        List<LifecycleAction> actions = Collections.singletonList(obj -> destroyed.incrementAndGet());
+        PreDestroyMonitor monitor = new PreDestroyMonitor(injector, 1);
+
+        List<Unscoped> live = new ArrayList<>();
+        int maxAfterGc = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int i = 0; i < INSTANCES_PER_ROUND; i++) {
+                Unscoped instance = injector.getInstance(Unscoped.class);
+                monitor.register(instance, binding, actions);
+                if (i == 0) {
+                    live.add(instance);
+                }
+            }
+            clearSoftReferences();
+            // cleared references are enqueued by the reference handler thread
+            Thread.sleep(100);
+            // the next registration purges the collected instances
+            monitor.register(injector.getInstance(Unscoped.class), binding, actions);
+            maxAfterGc = Math.max(maxAfterGc, monitor.getUnscopedInstanceCount());
+        }
+
+        Assert.assertTrue("registry kept " + maxAfterGc + " entries", maxAfterGc < INSTANCES_PER_ROUND);
+        Assert.assertTrue(monitor.getUnscopedInstanceCount() >= live.size());
+
+        monitor.close();
+        Assert.assertTrue(destroyed.get() >= live.size());
+        Assert.assertEquals(0, monitor.getUnscopedInstanceCount());
+    }
+
+    @Test
+    public void unreachableInstancesAreDestroyedAtShutdown() throws Exception {
+        Injector injector = Guice.createInjector();
+        Binding<Unscoped> binding = injector.getBinding(Unscoped.class);
+        AtomicInteger destroyed = new AtomicInteger();
+        PreDestroyMonitor monitor = new PreDestroyMonitor(injector, 1);
+        monitor.register(injector.getInstance(Unscoped.class), binding,
+                Collections.singletonList(obj -> destroyed.incrementAndGet()));
+
+        // Only low memory drops the instance before shutdown
+        System.gc();
+        Thread.sleep(10);
+        monitor.close();
+
+        Assert.assertEquals(1, destroyed.get());
+    }
+
+    /**
+     * Soft references are cleared before the heap is exhausted
+     */
+    private static void clearSoftReferences() {
+        List<long[]> hog = new ArrayList<>();
+        try {
+            while (true) {
+                hog.add(new long[1 << 20]);
+            }
+        } catch (OutOfMemoryError e) {
+            hog.clear();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.annotations.AsyncInit;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncInitTest {
+    private static volatile CountDownLatch barrier;
+
+    public static class SlowInit {
+        volatile boolean syncInitialized;
+        volatile boolean concurrent;
+        volatile String initThread;
+
+        @PostConstruct
+        public void init() {
+            syncInitialized = true;
+        }
+
+        @PostConstruct
+        @AsyncInit
+        public void warmUp() throws InterruptedException {
+            // synchronous actions always run first
+            Assert.assertTrue(syncInitialized);
+            initThread = Thread.currentThread().getName();
+            barrier.countDown();
+            concurrent = barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class SlowInitA extends SlowInit {
+    }
+
+    public static class SlowInitB extends SlowInit {
+    }
+
+    public static class FailingInit {
+        @PostConstruct
+        @AsyncInit
+        public void warmUp() {
+            throw new IllegalStateException("warm up failed");
+        }
+    }
+
+    public static class LateInit {
+        volatile String initThread;
+
+        @PostConstruct
+        @AsyncInit
+        public void warmUp() {
+            initThread = Thread.currentThread().getName();
+        }
+    }
+
+    @Test
+    public void asyncInitializersRunConcurrentlyBeforeStart() {
+        barrier = new CountDownLatch(2);
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.ASYNC_INIT_THREADS, 2)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(SlowInitA.class).asEagerSingleton();
+                        bind(SlowInitB.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        Assert.assertEquals(LifecycleManager.State.Started, injector.getInstance(LifecycleManager.class).getState());
+        for (SlowInit instance : new SlowInit[]{
+                injector.getInstance(SlowInitA.class), injector.getInstance(SlowInitB.class)}) {
+            Assert.assertTrue(instance.concurrent);
+            Assert.assertTrue(instance.initThread.startsWith("dject-async-init-"));
+        }
+        injector.shutdown();
+    }
+
+    @Test
+    public void asyncInitFailureFailsStartup() {
+        try {
+            Dject.newBuilder()
+                    .withModule(new AbstractModule() {
+                        @Override
+                        protected void configure() {
+                            bind(FailingInit.class).asEagerSingleton();
+                        }
+                    })
+                    .build();
+            Assert.fail("expected startup failure");
+        } catch (RuntimeException e) {
+            Throwable cause = e;
+            while (cause.getCause() != null && !(cause instanceof IllegalStateException)) {
+                cause = cause.getCause();
+            }
+            Assert.assertEquals("warm up failed", cause.getMessage());
+        }
+    }
+
+    @Test
+    public void asyncInitAfterStartIsSynchronous() {
+        Dject injector = Dject.newBuilder().withModule(binder -> { }).build();
+        LateInit instance = injector.getInstance(LateInit.class);
+        Assert.assertEquals(Thread.currentThread().getName(), instance.initThread);
+        injector.shutdown();
+    }
+}
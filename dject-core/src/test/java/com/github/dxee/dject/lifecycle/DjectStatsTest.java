@@ -0,0 +1,121 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.ManagementFactory;
+
+public class DjectStatsTest {
+    @Singleton
+    public static class Closeable {
+        @PreDestroy
+        public void close() {
+        }
+    }
+
+    public static class Unscoped {
+        @PreDestroy
+        public void close() {
+        }
+    }
+
+    public static class WarmedA {
+        @PreDestroy
+        public void close() {
+        }
+    }
+
+    public static class WarmedB {
+        @PreDestroy
+        public void close() {
+        }
+    }
+
+    @Test
+    public void publishesStatisticsUntilShutdown() throws Exception {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.JMX, true)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Closeable.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        Unscoped unscoped = injector.getInstance(Unscoped.class);
+
+        ObjectName name = injector.getInstance(DjectStats.class).getObjectName();
+        Assert.assertNotNull(name);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        Assert.assertEquals("Started", server.getAttribute(name, "State"));
+        Assert.assertTrue((Long) server.getAttribute(name, "StartupDurationMillis") >= 0);
+        Assert.assertTrue((Integer) server.getAttribute(name, "ListenerCount") > 0);
+        Assert.assertEquals(1, server.getAttribute(name, "SingletonPreDestroyCount"));
+        Assert.assertEquals(1, server.getAttribute(name, "UnscopedPreDestroyCount"));
+        Assert.assertEquals(0, server.getAttribute(name, "ScopedPreDestroyCount"));
+        Assert.assertTrue((Long) server.getAttribute(name, "LifecycleTypesScanned") > 0);
+
+        boolean closeableRecorded = false;
+        for (CompositeData stats : (CompositeData[]) server.getAttribute(name, "StartupProvisions")) {
+            closeableRecorded |= stats.get("key").toString().contains(Closeable.class.getSimpleName());
+        }
+        Assert.assertTrue(closeableRecorded);
+
+        injector.shutdown();
+        Assert.assertFalse(server.isRegistered(name));
+        Assert.assertNotNull(unscoped);
+    }
+
+    @Test
+    public void notRegisteredByDefault() {
+        Dject injector = Dject.newBuilder().withModule(new AbstractModule() {
+            @Override
+            protected void configure() {
+            }
+        }).build();
+
+        Assert.assertNull(injector.getInstance(DjectStats.class).getObjectName());
+        injector.shutdown();
+    }
+
+    @Test
+    public void warmupIsNotCountedAsLookups() throws InterruptedException {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.WARMUP_THREADS, 2)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(WarmedA.class);
+                        bind(WarmedB.class);
+                    }
+                })
+                .build();
+        DjectStats stats = injector.getInstance(DjectStats.class);
+        LifecycleModule.LifecycleProvisionListener listener =
+                injector.getInstance(LifecycleModule.LifecycleProvisionListener.class);
+        for (int i = 0; i < 500 && listener.getWarmupScans() < 2; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertEquals(2, listener.getWarmupScans());
+
+        long lookups = listener.getTypeLookups();
+        long scanned = listener.getTypesScanned();
+        double hitRate = stats.getLifecycleBindingLookupHitRate();
+        injector.getInstance(WarmedA.class);
+        injector.getInstance(WarmedB.class);
+
+        // Both lookups hit the types scanned by the warmup
+        Assert.assertEquals(lookups + 2, listener.getTypeLookups());
+        Assert.assertEquals(scanned, listener.getTypesScanned());
+        Assert.assertTrue(stats.getLifecycleBindingLookupHitRate() > hitRate);
+        injector.shutdown();
+    }
+}
@@ -0,0 +1,245 @@
+package com.github.dxee.dject.lifecycle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class LifecycleManagerTest {
+    private static class RecordingListener implements LifecycleListener {
+        private final String name;
+        private final List<String> events;
+        final AtomicInteger started = new AtomicInteger();
+
+        RecordingListener(String name, List<String> events) {
+            this.name = name;
+            this.events = events;
+        }
+
+        @Override
+        public void onStarted() {
+            started.incrementAndGet();
+            events.add("start " + name);
+        }
+
+        @Override
+        public void onStopped(Throwable error) {
+            events.add("stop " + name);
+        }
+    }
+
+    private static class PhasedListener extends RecordingListener implements PhasedLifecycleListener {
+        private final int phase;
+
+        PhasedListener(String name, int phase, List<String> events) {
+            super(name, events);
+            this.phase = phase;
+        }
+
+        @Override
+        public int getPhase() {
+            return phase;
+        }
+    }
+
+    @Test
+    public void listenersAreStoppedInReverseRegistrationOrder() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        LifecycleManager manager = new LifecycleManager();
+        RecordingListener a = new RecordingListener("a", events);
+        RecordingListener b = new RecordingListener("b", events);
+        RecordingListener c = new RecordingListener("c", events);
+        manager.addListener(a);
+        manager.addListener(b);
+        manager.addListener(a);
+        manager.notifyStarted();
+        manager.addListener(c);
+        manager.notifyShutdown();
+
+        Assert.assertEquals(Arrays.asList("start a", "start b", "start c", "stop c", "stop b", "stop a"), events);
+    }
+
+    @Test
+    public void slowListenerDoesNotBlockRegistration() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch starting = new CountDownLatch(1);
+        LifecycleManager manager = new LifecycleManager();
+        manager.addListener(new PhasedListener("slow", 1, events) {
+            @Override
+            public void onStarted() {
+                starting.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onStarted();
+            }
+        });
+        CompletableFuture<Void> start = CompletableFuture.runAsync(manager::notifyStarted);
+        Assert.assertTrue(starting.await(5, TimeUnit.SECONDS));
+
+        PhasedListener late = new PhasedListener("late", 0, events);
+        CompletableFuture.runAsync(() -> manager.addListener(late)).get(5, TimeUnit.SECONDS);
+        // Only started once the phases being started are done
+        Assert.assertEquals(0, late.started.get());
+
+        release.countDown();
+        start.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(1, late.started.get());
+        Assert.assertEquals(Arrays.asList("start slow", "start late"), events);
+    }
+
+    @Test
+    public void shutdownWaitsForListenersBeingStarted() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch starting = new CountDownLatch(1);
+        LifecycleManager manager = new LifecycleManager();
+        manager.addListener(new PhasedListener("slow", 1, events) {
+            @Override
+            public void onStarted() {
+                starting.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onStarted();
+            }
+        });
+        manager.addListener(new PhasedListener("next", 2, events));
+        CompletableFuture<Void> start = CompletableFuture.runAsync(manager::notifyStarted);
+        Assert.assertTrue(starting.await(5, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(manager::notifyShutdown);
+        Thread.sleep(100);
+        Assert.assertFalse(shutdown.isDone());
+
+        release.countDown();
+        start.get(5, TimeUnit.SECONDS);
+        shutdown.get(5, TimeUnit.SECONDS);
+        Assert.assertEquals(Arrays.asList("start slow", "start next", "stop next", "stop slow"), events);
+    }
+
+    @Test
+    public void listenersAddedDuringStartAreNotifiedOnce() throws Exception {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        LifecycleManager manager = new LifecycleManager();
+        List<RecordingListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            listeners.add(new RecordingListener(Integer.toString(i), events));
+        }
+
+        CountDownLatch go = new CountDownLatch(1);
+        CompletableFuture<Void> adding = CompletableFuture.runAsync(() -> {
+            try {
+                go.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            listeners.forEach(manager::addListener);
+        });
+        go.countDown();
+        manager.notifyStarted();
+        adding.get(5, TimeUnit.SECONDS);
+
+        for (RecordingListener listener : listeners) {
+            Assert.assertEquals(1, listener.started.get());
+        }
+    }
+
+    @Test
+    public void listenersAreNotifiedInParallel() {
+        CountDownLatch barrier = new CountDownLatch(3);
+        AtomicInteger concurrent = new AtomicInteger();
+        LifecycleManager manager = new LifecycleManager(3);
+        List<LifecycleListener> listeners = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            listeners.add(new LifecycleListener() {
+                @Override
+                public void onStarted() {
+                    barrier.countDown();
+                    try {
+                        if (barrier.await(5, TimeUnit.SECONDS)) {
+                            concurrent.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+
+                @Override
+                public void onStopped(Throwable error) {
+                }
+            });
+        }
+        listeners.forEach(manager::addListener);
+        manager.notifyStarted();
+
+        // notifyStarted only returns once all listeners have been notified
+        Assert.assertEquals(3, concurrent.get());
+        Assert.assertEquals(LifecycleManager.State.Started, manager.getState());
+    }
+
+    @Test
+    public void phasesStartInAscendingAndStopInDescendingOrder() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        LifecycleManager manager = new LifecycleManager();
+        List<LifecycleListener> listeners = Arrays.asList(
+                new PhasedListener("discovery", 20, events),
+                new RecordingListener("default", events),
+                new PhasedListener("server", 10, events),
+                new PhasedListener("cache", -10, events));
+        listeners.forEach(manager::addListener);
+        manager.notifyStarted();
+        manager.notifyShutdown();
+
+        Assert.assertEquals(Arrays.asList(
+                "start cache", "start default", "start server", "start discovery",
+                "stop discovery", "stop server", "stop default", "stop cache"), events);
+    }
+
+    @Test
+    public void listenersWithinPhaseStartConcurrently() {
+        List<String> events = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch barrier = new CountDownLatch(2);
+        AtomicInteger concurrent = new AtomicInteger();
+        LifecycleManager manager = new LifecycleManager(4);
+        List<LifecycleListener> listeners = new ArrayList<>();
+        for (String name : Arrays.asList("a", "b")) {
+            listeners.add(new PhasedListener(name, 1, events) {
+                @Override
+                public void onStarted() {
+                    barrier.countDown();
+                    try {
+                        if (barrier.await(5, TimeUnit.SECONDS)) {
+                            concurrent.incrementAndGet();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    super.onStarted();
+                }
+            });
+        }
+        listeners.add(new PhasedListener("c", 2, events));
+        listeners.add(new PhasedListener("d", 2, events));
+        listeners.forEach(manager::addListener);
+        manager.notifyStarted();
+
+        Assert.assertEquals(2, concurrent.get());
+        // The second phase only starts once the first one is done
+        Assert.assertEquals(4, events.size());
+        Assert.assertTrue(events.subList(0, 2).containsAll(Arrays.asList("start a", "start b")));
+        Assert.assertTrue(events.subList(2, 4).containsAll(Arrays.asList("start c", "start d")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.google.common.io.ByteStreams;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stress test loading and unloading ClassLoaders to confirm that the lifecycle
+ * metadata cache doesn't pin classes, as happens in plugin reloading deployments.
+ */
+public class LifecycleMetadataClassLoaderTest {
+    private static final int CLASSLOADER_COUNT = 200;
+
+    /**
+     * ClassLoader defining its own copy of {@link LifecyclePlugin} and delegating everything else to the parent
+     */
+    private static final class PluginClassLoader extends ClassLoader {
+        private final byte[] pluginBytes;
+
+        PluginClassLoader(byte[] pluginBytes) {
+            super(LifecycleMetadataClassLoaderTest.class.getClassLoader());
+            this.pluginBytes = pluginBytes;
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(LifecyclePlugin.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    type = defineClass(name, pluginBytes, 0, pluginBytes.length);
+                }
+                return type;
+            }
+        }
+    }
+
+    @Test
+    public void lifecycleMetadataDoesNotPinClassLoaders() throws Exception {
+        Dject injector = Dject.newBuilder().withModule(binder -> { }).build();
+        LifecycleModule.LifecycleProvisionListener listener =
+                injector.getInstance(LifecycleModule.LifecycleProvisionListener.class);
+        byte[] pluginBytes = readClassBytes(LifecyclePlugin.class);
+
+        List<WeakReference<ClassLoader>> loaders = new ArrayList<>();
+        for (int i = 0; i < CLASSLOADER_COUNT; i++) {
+            loaders.add(new WeakReference<>(loadAndProcess(listener, pluginBytes)));
+        }
+
+        for (int i = 0; i < 50 && countLive(loaders) > 0; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        Assert.assertEquals("ClassLoaders still reachable", 0, countLive(loaders));
+        injector.shutdown();
+    }
+
+    private static ClassLoader loadAndProcess(LifecycleModule.LifecycleProvisionListener listener,
+                                              byte[] pluginBytes) throws Exception {
+        ClassLoader loader = new PluginClassLoader(pluginBytes);
+        Class<?> pluginType = loader.loadClass(LifecyclePlugin.class.getName());
+        Assert.assertNotSame(LifecyclePlugin.class, pluginType);
+
+        LifecycleModule.TypeLifecycleActions actions = listener.getOrCreateActions(pluginType);
+        Assert.assertSame(actions, listener.getOrCreateActions(pluginType));
+        Assert.assertEquals(1, actions.postConstructActions.size());
+        Assert.assertEquals(1, actions.preDestroyActions.size());
+
+        Object plugin = pluginType.newInstance();
+        actions.postConstructActions.get(0).call(plugin);
+        actions.preDestroyActions.get(0).call(plugin);
+        Assert.assertTrue(readFlag(plugin, "initialized"));
+        Assert.assertTrue(readFlag(plugin, "destroyed"));
+        return loader;
+    }
+
+    private static boolean readFlag(Object plugin, String name) throws ReflectiveOperationException {
+        Field field = plugin.getClass().getDeclaredField(name);
+        field.setAccessible(true);
+        return field.getBoolean(plugin);
+    }
+
+    private static int countLive(List<WeakReference<ClassLoader>> loaders) {
+        int live = 0;
+        for (WeakReference<ClassLoader> loader : loaders) {
+            if (loader.get() != null) {
+                live++;
+            }
+        }
+        return live;
+    }
+
+    private static byte[] readClassBytes(Class<?> type) throws IOException {
+        String resource = type.getName().replace('.', '/') + ".class";
+        try (InputStream is = type.getClassLoader().getResourceAsStream(resource)) {
+            return ByteStreams.toByteArray(is);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.github.dxee.dject.lifecycle;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+/**
+ * Type loaded through throwaway ClassLoaders by {@link LifecycleMetadataClassLoaderTest}
+ */
+public class LifecyclePlugin {
+    private boolean initialized;
+    private boolean destroyed;
+
+    @PostConstruct
+    public void init() {
+        initialized = true;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        destroyed = true;
+    }
+}
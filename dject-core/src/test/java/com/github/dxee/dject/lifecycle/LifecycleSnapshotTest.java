@@ -0,0 +1,140 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.github.dxee.dject.internal.LifecycleSnapshot;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class LifecycleSnapshotTest {
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class BaseService {
+        @PostConstruct
+        public void initBase() {
+            EVENTS.add("init base");
+        }
+    }
+
+    public interface Describable {
+        default String describe() {
+            return "service";
+        }
+    }
+
+    public static class Service extends BaseService implements Describable {
+        @PostConstruct
+        public void init() {
+            EVENTS.add("init");
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("shutdown");
+        }
+    }
+
+    public static class Resource implements AutoCloseable {
+        @Override
+        public void close() {
+            EVENTS.add("close");
+        }
+    }
+
+    @Before
+    public void setUp() {
+        EVENTS.clear();
+    }
+
+    private static LifecycleSnapshot run(Path file, boolean strict) {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.LIFECYCLE_SNAPSHOT, file.toString())
+                .withFeature(DjectFeatures.STRICT_JSR250_VALIDATION, strict)
+                .withModule(binder -> { })
+                .build();
+        injector.getInstance(Service.class);
+        injector.getInstance(Resource.class);
+        LifecycleSnapshot snapshot = injector.getInstance(LifecycleModule.LifecycleProvisionListener.class)
+                .getSnapshot();
+        injector.shutdown();
+        return snapshot;
+    }
+
+    @Test
+    public void lifecycleMethodsAreReadFromSnapshot() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("lifecycle.snapshot");
+        LifecycleSnapshot first = run(file, false);
+        Assert.assertEquals(0, first.getHits());
+        Assert.assertTrue(Files.isRegularFile(file));
+        List<String> expected = Arrays.asList("init base", "init", "close", "shutdown");
+        Assert.assertEquals(expected, EVENTS);
+
+        EVENTS.clear();
+        LifecycleSnapshot second = run(file, false);
+        Assert.assertTrue(second.getHits() >= 2);
+        Assert.assertEquals(0, second.getMisses());
+        Assert.assertEquals(expected, EVENTS);
+    }
+
+    @Test
+    public void snapshotOfAnotherConfigurationIsIgnored() {
+        Path file = folder.getRoot().toPath().resolve("lifecycle.snapshot");
+        run(file, false);
+        LifecycleSnapshot strict = run(file, true);
+        Assert.assertEquals(0, strict.getHits());
+    }
+
+    @Test
+    public void changedTypesAreAnalyzedAgain() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("lifecycle.snapshot");
+        run(file, false);
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .map(line -> line.startsWith(Service.class.getName() + "\t")
+                        ? line.replaceFirst("\t[^\t]*\t", "\tchanged\t") : line)
+                .collect(Collectors.toList());
+        Files.write(file, lines, StandardCharsets.UTF_8);
+
+        EVENTS.clear();
+        LifecycleSnapshot snapshot = run(file, false);
+        Assert.assertEquals(1, snapshot.getMisses());
+        Assert.assertEquals(Arrays.asList("init base", "init", "close", "shutdown"), EVENTS);
+    }
+
+    @Test
+    public void changedInterfacesAreAnalyzedAgain() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("lifecycle.snapshot");
+        run(file, false);
+
+        Path classFile = Paths.get(Describable.class.getProtectionDomain().getCodeSource().getLocation().toURI())
+                .resolve(Describable.class.getName().replace('.', '/') + ".class");
+        FileTime modified = Files.getLastModifiedTime(classFile);
+        Files.setLastModifiedTime(classFile, FileTime.fromMillis(modified.toMillis() + 10_000));
+        try {
+            EVENTS.clear();
+            LifecycleSnapshot snapshot = run(file, false);
+            Assert.assertEquals(1, snapshot.getMisses());
+            Assert.assertEquals(Arrays.asList("init base", "init", "close", "shutdown"), EVENTS);
+        } finally {
+            Files.setLastModifiedTime(classFile, modified);
+        }
+    }
+}
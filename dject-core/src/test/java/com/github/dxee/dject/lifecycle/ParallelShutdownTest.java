@@ -0,0 +1,207 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelShutdownTest {
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+    private static volatile CountDownLatch barrier;
+
+    public static class Independent {
+        volatile boolean concurrent;
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            barrier.countDown();
+            concurrent = barrier.await(5, TimeUnit.SECONDS);
+        }
+    }
+
+    public static class IndependentA extends Independent {
+    }
+
+    public static class IndependentB extends Independent {
+    }
+
+    public static class IndependentC extends Independent {
+    }
+
+    public static class Child {
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("child");
+        }
+    }
+
+    public static class Middle {
+        @Inject
+        public Middle(Child child) {
+        }
+    }
+
+    public static class Parent {
+        @Inject
+        public Parent(Middle middle) {
+        }
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            // give the child a chance to be destroyed out of order
+            Thread.sleep(50);
+            EVENTS.add("parent");
+        }
+    }
+
+    public static class Sibling {
+        @Inject
+        public Sibling(Child child) {
+        }
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            Thread.sleep(50);
+            EVENTS.add("sibling");
+        }
+    }
+
+    @Singleton
+    public static class ChainC {
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("c");
+        }
+    }
+
+    @Singleton
+    public static class ChainB {
+        @Inject
+        public ChainB(ChainC c) {
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("b");
+        }
+    }
+
+    @Singleton
+    public static class ChainA {
+        @Inject
+        public ChainA(ChainB b) {
+        }
+
+        @PreDestroy
+        public void shutdown() throws InterruptedException {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+
+    @Singleton
+    public static class ChainX {
+        @Inject
+        public ChainX(ChainA a) {
+        }
+
+        @PreDestroy
+        public void shutdown() {
+            EVENTS.add("x");
+        }
+    }
+
+    @Before
+    public void setUp() {
+        EVENTS.clear();
+    }
+
+    @Test
+    public void independentSingletonsAreDestroyedConcurrently() {
+        barrier = new CountDownLatch(3);
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.SHUTDOWN_PARALLELISM, 3)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(IndependentA.class).asEagerSingleton();
+                        bind(IndependentB.class).asEagerSingleton();
+                        bind(IndependentC.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        IndependentA a = injector.getInstance(IndependentA.class);
+        IndependentB b = injector.getInstance(IndependentB.class);
+        IndependentC c = injector.getInstance(IndependentC.class);
+
+        injector.shutdown();
+
+        Assert.assertEquals(0, barrier.getCount());
+        Assert.assertTrue(a.concurrent);
+        Assert.assertTrue(b.concurrent);
+        Assert.assertTrue(c.concurrent);
+    }
+
+    @Test
+    public void dependenciesAreDestroyedAfterDependents() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.SHUTDOWN_PARALLELISM, 4)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Child.class).asEagerSingleton();
+                        bind(Parent.class).asEagerSingleton();
+                        bind(Sibling.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        injector.shutdown();
+
+        Assert.assertEquals(3, EVENTS.size());
+        Assert.assertEquals("child", EVENTS.get(2));
+    }
+
+    @Test
+    public void actionsWaitingOnAbandonedActionAreReportedAsSkipped() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.SHUTDOWN_PARALLELISM, 4)
+                .withFeature(DjectFeatures.SHUTDOWN_TIMEOUT_MILLIS, 300L)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(ChainX.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+
+        injector.shutdown();
+
+        Assert.assertEquals(Collections.singletonList("x"), EVENTS);
+        ShutdownReport report = manager.getShutdownReport();
+        Assert.assertEquals(4, report.getEntries().size());
+        Assert.assertEquals(ShutdownReport.Status.COMPLETED, statusOf(report, ChainX.class));
+        Assert.assertEquals(ShutdownReport.Status.TIMED_OUT, statusOf(report, ChainA.class));
+        Assert.assertEquals(ShutdownReport.Status.SKIPPED, statusOf(report, ChainB.class));
+        Assert.assertEquals(ShutdownReport.Status.SKIPPED, statusOf(report, ChainC.class));
+    }
+
+    private static ShutdownReport.Status statusOf(ShutdownReport report, Class<?> type) {
+        return report.getEntries().stream()
+                .filter(entry -> entry.getAction().contains(type.getSimpleName() + ".shutdown()"))
+                .map(ShutdownReport.Entry::getStatus)
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+}
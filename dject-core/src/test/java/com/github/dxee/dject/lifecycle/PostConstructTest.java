@@ -201,6 +201,53 @@ public class PostConstructTest {
         Mockito.verify(injector.getInstance(SimplePostConstruct.class), Mockito.times(1)).init();
     }
 
+    private interface Counted {
+        int getCount();
+    }
+
+    private static class CountedPostConstruct implements Counted {
+        private int count;
+
+        @PostConstruct
+        public void init() {
+            count++;
+        }
+
+        @Override
+        public int getCount() {
+            return count;
+        }
+    }
+
+    private static class UncountedPostConstruct implements Counted {
+        @Override
+        public int getCount() {
+            return 0;
+        }
+    }
+
+    @Test
+    public void testLifecycleInitWithProviderOfVaryingTypes() {
+        Dject injector = Dject.newBuilder().withModule(new AbstractModule() {
+            private int provisions;
+
+            @Override
+            protected void configure() {
+            }
+
+            @Provides
+            Counted getCounted() {
+                return provisions++ % 2 == 0 ? new UncountedPostConstruct() : new CountedPostConstruct();
+            }
+        }).build();
+
+        // Lifecycle decisions are cached per binding, make sure they still follow the actual type
+        for (int i = 0; i < 4; i++) {
+            Counted counted = injector.getInstance(Counted.class);
+            Assert.assertEquals(counted instanceof CountedPostConstruct ? 1 : 0, counted.getCount());
+        }
+    }
+
     @Before
     public void printTestHeader() {
         System.out.println("\n=======================================================");
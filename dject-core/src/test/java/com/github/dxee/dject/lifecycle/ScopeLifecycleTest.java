@@ -0,0 +1,104 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.Provider;
+import com.google.inject.Scope;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class ScopeLifecycleTest {
+    private static final List<String> EVENTS = Collections.synchronizedList(new ArrayList<>());
+
+    /**
+     * Scope with a single active scope instance that keeps its storage reachable after
+     * exit so cleanup can't be triggered by garbage collection
+     */
+    private static class ClosingScope implements Scope {
+        private Map<Key<?>, Object> current;
+        private final List<Map<Key<?>, Object>> exited = new ArrayList<>();
+
+        void enter() {
+            current = new HashMap<>();
+        }
+
+        boolean exit() {
+            Map<Key<?>, Object> storage = current;
+            current = null;
+            exited.add(storage);
+            return ScopeLifecycle.close(storage);
+        }
+
+        @Override
+        public <T> Provider<T> scope(Key<T> key, Provider<T> unscoped) {
+            return () -> {
+                @SuppressWarnings("unchecked")
+                T instance = (T) current.get(key);
+                if (instance == null) {
+                    instance = unscoped.get();
+                    current.put(key, instance);
+                }
+                return instance;
+            };
+        }
+    }
+
+    public static class Connection {
+        @PreDestroy
+        public void close() {
+            EVENTS.add("connection");
+        }
+    }
+
+    public static class Session {
+        @Inject
+        public Session(Connection connection) {
+        }
+
+        @PreDestroy
+        public void close() {
+            EVENTS.add("session");
+        }
+    }
+
+    @Test
+    public void scopedInstancesAreDestroyedOnClose() {
+        EVENTS.clear();
+        ClosingScope scope = new ClosingScope();
+        Dject injector = Dject.newBuilder().withModule(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Connection.class).in(scope);
+                bind(Session.class).in(scope);
+            }
+        }).build();
+
+        scope.enter();
+        injector.getInstance(Session.class);
+        Assert.assertTrue(EVENTS.isEmpty());
+        Assert.assertTrue(scope.exit());
+        Assert.assertEquals(2, EVENTS.size());
+        Assert.assertEquals("session", EVENTS.get(0));
+
+        // closing twice or at shutdown has no further effect
+        Assert.assertFalse(ScopeLifecycle.close(scope.exited.get(0)));
+        injector.shutdown();
+        Assert.assertEquals(2, EVENTS.size());
+    }
+
+    @Test
+    public void scopeWithoutManagedInstancesIsIgnored() {
+        Assert.assertFalse(ScopeLifecycle.close(new HashMap<>()));
+        Assert.assertFalse(ScopeLifecycle.close(Collections.singletonList("not a scope")));
+        Assert.assertFalse(ScopeLifecycle.close(null));
+    }
+}
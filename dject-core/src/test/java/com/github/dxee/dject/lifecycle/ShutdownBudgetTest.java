@@ -0,0 +1,116 @@
+package com.github.dxee.dject.lifecycle;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.TimeUnit;
+
+public class ShutdownBudgetTest {
+    public static class Hung {
+        volatile boolean interrupted;
+
+        @PreDestroy
+        public void shutdown() {
+            try {
+                Thread.sleep(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+    }
+
+    public static class HungA extends Hung {
+    }
+
+    public static class HungB extends Hung {
+    }
+
+    public static class Quick {
+        volatile boolean destroyed;
+
+        @PreDestroy
+        public void shutdown() {
+            destroyed = true;
+        }
+    }
+
+    @Test
+    public void hungActionIsAbandonedAfterActionTimeout() throws InterruptedException {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.SHUTDOWN_ACTION_TIMEOUT_MILLIS, 200L)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Quick.class).asEagerSingleton();
+                        bind(HungA.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        Quick quick = injector.getInstance(Quick.class);
+        Hung hung = injector.getInstance(HungA.class);
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+
+        long start = System.nanoTime();
+        injector.shutdown();
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+
+        Assert.assertTrue(quick.destroyed);
+        ShutdownReport report = manager.getShutdownReport();
+        Assert.assertEquals(2, report.getEntries().size());
+        Assert.assertEquals(1, report.getCount(ShutdownReport.Status.COMPLETED));
+        Assert.assertEquals(1, report.getCount(ShutdownReport.Status.TIMED_OUT));
+        Assert.assertTrue(report.getSlowest(1).get(0).getKey().contains(HungA.class.getSimpleName()));
+        for (int i = 0; i < 50 && !hung.interrupted; i++) {
+            Thread.sleep(10);
+        }
+        Assert.assertTrue(hung.interrupted);
+    }
+
+    @Test
+    public void remainingActionsAreSkippedAfterDeadline() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.SHUTDOWN_TIMEOUT_MILLIS, 300L)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(HungA.class).asEagerSingleton();
+                        bind(HungB.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+
+        long start = System.nanoTime();
+        injector.shutdown();
+        Assert.assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 10);
+
+        ShutdownReport report = manager.getShutdownReport();
+        Assert.assertFalse(report.isClean());
+        Assert.assertEquals(1, report.getCount(ShutdownReport.Status.TIMED_OUT));
+        Assert.assertEquals(1, report.getCount(ShutdownReport.Status.SKIPPED));
+    }
+
+    @Test
+    public void unboundedShutdownIsReported() {
+        Dject injector = Dject.newBuilder()
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Quick.class).asEagerSingleton();
+                    }
+                })
+                .build();
+        LifecycleManager manager = injector.getInstance(LifecycleManager.class);
+        Assert.assertNull(manager.getShutdownReport());
+
+        injector.shutdown();
+
+        ShutdownReport report = manager.getShutdownReport();
+        Assert.assertTrue(report.isClean());
+        Assert.assertEquals(1, report.getEntries().size());
+    }
+}
@@ -0,0 +1,108 @@
+package com.github.dxee.dject.metrics;
+
+import com.github.dxee.dject.Dject;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+public class CriticalPathAnalyzerTest {
+    private static final Key<?> A = Key.get(String.class, Names.named("a"));
+    private static final Key<?> B = Key.get(String.class, Names.named("b"));
+    private static final Key<?> C = Key.get(String.class, Names.named("c"));
+    private static final Key<?> D = Key.get(String.class, Names.named("d"));
+    private static final Key<?> E = Key.get(String.class, Names.named("e"));
+
+    @Singleton
+    public static class Database {
+        public Database() throws InterruptedException {
+            Thread.sleep(30);
+        }
+    }
+
+    @Singleton
+    public static class Cache {
+        @Inject
+        public Cache(Provider<Server> server) throws InterruptedException {
+            Thread.sleep(5);
+        }
+    }
+
+    @Singleton
+    public static class Server {
+        @Inject
+        public Server(Database database, Cache cache) throws InterruptedException {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    public void findsCriticalPathAndSlack() {
+        Map<Key<?>, Long> costs = ImmutableMap.<Key<?>, Long>builder()
+                .put(A, 10L).put(B, 20L).put(C, 5L).put(D, 30L).put(E, 40L)
+                .build();
+        Map<Key<?>, Set<Key<?>>> dependencies = ImmutableMap.<Key<?>, Set<Key<?>>>of(
+                A, ImmutableSet.of(B, C),
+                B, ImmutableSet.of(D));
+        CriticalPathAnalyzer analysis = CriticalPathAnalyzer.analyze(costs, dependencies);
+
+        Assert.assertEquals(105, analysis.getTotalWork(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(60, analysis.getCriticalPathDuration(TimeUnit.NANOSECONDS));
+        Assert.assertEquals("[" + D + ", " + B + ", " + A + "]", analysis.getCriticalPath().stream()
+                .map(CriticalPathAnalyzer.KeyAnalysis::getKey).collect(Collectors.toList()).toString());
+        Assert.assertEquals(0, analysis.getKey(B).getSlack(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(45, analysis.getKey(C).getSlack(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(20, analysis.getKey(E).getSlack(TimeUnit.NANOSECONDS));
+
+        Assert.assertEquals(105, analysis.estimateStartupTime(1, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(60, analysis.estimateStartupTime(2, TimeUnit.NANOSECONDS));
+        Assert.assertEquals(60, analysis.estimateStartupTime(8, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void breaksCycles() {
+        Map<Key<?>, Long> costs = ImmutableMap.<Key<?>, Long>of(A, 10L, B, 20L);
+        Map<Key<?>, Set<Key<?>>> dependencies = ImmutableMap.<Key<?>, Set<Key<?>>>of(
+                A, ImmutableSet.of(B),
+                B, ImmutableSet.of(A));
+        CriticalPathAnalyzer analysis = CriticalPathAnalyzer.analyze(costs, dependencies);
+
+        Assert.assertEquals(30, analysis.getCriticalPathDuration(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(30, analysis.estimateStartupTime(4, TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void analyzesInjectorStartup() {
+        Dject injector = Dject.newBuilder()
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Server.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        CriticalPathAnalyzer analysis = CriticalPathAnalyzer.analyze(injector,
+                injector.getInstance(ProvisionMetrics.class));
+        Assert.assertEquals(Key.get(Server.class),
+                analysis.getCriticalPath().get(analysis.getCriticalPath().size() - 1).getKey());
+        Assert.assertEquals(Key.get(Database.class), analysis.getCriticalPath().get(0).getKey());
+        // The provider dependency doesn't make the cache wait for the server
+        Assert.assertTrue(analysis.getKey(Key.get(Cache.class)).getSlack(TimeUnit.MILLISECONDS) > 0);
+        Assert.assertTrue(analysis.estimateStartupTime(2, TimeUnit.MILLISECONDS)
+                < analysis.getTotalWork(TimeUnit.MILLISECONDS));
+        Assert.assertTrue(analysis.report(1, 2).contains("Estimated startup with 2 threads"));
+        injector.shutdown();
+    }
+}
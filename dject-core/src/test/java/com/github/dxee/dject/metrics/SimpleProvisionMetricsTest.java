@@ -0,0 +1,168 @@
+package com.github.dxee.dject.metrics;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.feature.DjectFeatures;
+import com.google.inject.AbstractModule;
+import com.google.inject.Key;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class SimpleProvisionMetricsTest {
+    public static class Foo {
+        @PostConstruct
+        public void init() throws InterruptedException {
+            Thread.sleep(1);
+        }
+    }
+
+    public static class Parent {
+        @Inject
+        public Parent(Foo foo) {
+        }
+    }
+
+    @Test
+    public void treeIsOnlyRecordedUntilStarted() {
+        SimpleProvisionMetrics metrics = new SimpleProvisionMetrics();
+        metrics.push(Key.get(String.class));
+        metrics.push(Key.get(Integer.class));
+        metrics.pop();
+        metrics.pop();
+        metrics.onStarted();
+        for (int i = 0; i < 1000; i++) {
+            metrics.push(Key.get(String.class));
+            metrics.pop();
+        }
+
+        AtomicInteger roots = new AtomicInteger();
+        metrics.accept(element -> {
+            roots.incrementAndGet();
+            Assert.assertEquals(Key.get(String.class), element.getKey());
+            element.accept(child -> Assert.assertEquals(Key.get(Integer.class), child.getKey()));
+        });
+        Assert.assertEquals(1, roots.get());
+        Assert.assertEquals(2, metrics.getKeyMetrics().size());
+        Assert.assertEquals(1, find(metrics.getKeyMetrics(), Key.get(String.class)).getCount());
+        Assert.assertEquals(1000, find(metrics.getRuntimeKeyMetrics(), Key.get(String.class)).getCount());
+    }
+
+    @Test
+    public void sampledProvisionsAreWeighted() {
+        SimpleProvisionMetrics metrics = new SimpleProvisionMetrics();
+        metrics.onStarted();
+        Assert.assertFalse(metrics.isRecording(Key.get(String.class)));
+        metrics.push(Key.get(String.class), 10);
+        Assert.assertTrue(metrics.isRecording(Key.get(String.class)));
+        // Provisions nested in a sampled one aren't recorded unless they were sampled too
+        Assert.assertFalse(metrics.isRecording(Key.get(Integer.class)));
+        metrics.addLifecycleDuration(5);
+        metrics.pop();
+        Assert.assertFalse(metrics.isRecording(Key.get(String.class)));
+
+        ProvisionMetrics.KeyMetrics keyMetrics = find(metrics.getRuntimeKeyMetrics(), Key.get(String.class));
+        Assert.assertEquals(10, keyMetrics.getCount());
+        Assert.assertEquals(50, keyMetrics.getLifecycleDuration(TimeUnit.NANOSECONDS));
+        Assert.assertTrue(keyMetrics.getRate(TimeUnit.SECONDS) > 0);
+    }
+
+    @Test
+    public void percentilesAreBoundedByBucketsAndMax() {
+        SimpleProvisionMetrics.Stats stats = new SimpleProvisionMetrics.Stats(Key.get(String.class), System.nanoTime());
+        for (int i = 0; i < 98; i++) {
+            stats.record(1000, 0, 1);
+        }
+        stats.record(1_000_000, 0, 1);
+        stats.record(2_000_000, 0, 1);
+
+        Assert.assertEquals(100, stats.getCount());
+        Assert.assertEquals(2_000_000, stats.getMaxDuration(TimeUnit.NANOSECONDS));
+        Assert.assertEquals(98_000 + 3_000_000, stats.getTotalDuration(TimeUnit.NANOSECONDS));
+        long p50 = stats.getPercentile(50, TimeUnit.NANOSECONDS);
+        Assert.assertTrue(p50 >= 1000 && p50 < 2000);
+        long p99 = stats.getPercentile(99, TimeUnit.NANOSECONDS);
+        Assert.assertTrue(p99 >= 1_000_000 && p99 < 2_000_000);
+        Assert.assertEquals(2_000_000, stats.getPercentile(100, TimeUnit.NANOSECONDS));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void popWithoutPushFails() {
+        new SimpleProvisionMetrics().pop();
+    }
+
+    @Test
+    public void injectorStopsRecordingTreeOnceStarted() {
+        Dject injector = Dject.newBuilder().withModule(new AbstractModule() {
+            @Override
+            protected void configure() {
+                bind(Foo.class);
+            }
+        }).build();
+
+        ProvisionMetrics metrics = injector.getInstance(ProvisionMetrics.class);
+        AtomicInteger before = new AtomicInteger();
+        metrics.accept(element -> before.incrementAndGet());
+        injector.getInstance(Foo.class);
+        AtomicInteger after = new AtomicInteger();
+        metrics.accept(element -> after.incrementAndGet());
+        Assert.assertEquals(before.get(), after.get());
+        Assert.assertTrue(metrics.getRuntimeKeyMetrics().isEmpty());
+    }
+
+    @Test
+    public void runtimeProvisionsAreSampled() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.RUNTIME_PROVISION_SAMPLING, 1)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Foo.class);
+                    }
+                }).build();
+
+        for (int i = 0; i < 5; i++) {
+            injector.getInstance(Foo.class);
+        }
+        ProvisionMetrics metrics = injector.getInstance(ProvisionMetrics.class);
+        ProvisionMetrics.KeyMetrics foo = find(metrics.getRuntimeKeyMetrics(), Key.get(Foo.class));
+        Assert.assertEquals(5, foo.getCount());
+        Assert.assertTrue(foo.getLifecycleDuration(TimeUnit.MILLISECONDS) >= 5);
+        Assert.assertTrue(foo.getLifecycleDuration(TimeUnit.NANOSECONDS) <= foo.getTotalDuration(TimeUnit.NANOSECONDS));
+    }
+
+    @Test
+    public void lifecycleOfUnsampledChildIsNotChargedToSampledParent() {
+        Dject injector = Dject.newBuilder()
+                .withFeature(DjectFeatures.RUNTIME_PROVISION_SAMPLING, 2)
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Parent.class);
+                    }
+                }).build();
+
+        for (int i = 0; i < 50; i++) {
+            injector.getInstance(Parent.class);
+        }
+        ProvisionMetrics metrics = injector.getInstance(ProvisionMetrics.class);
+        ProvisionMetrics.KeyMetrics parent = find(metrics.getRuntimeKeyMetrics(), Key.get(Parent.class));
+        Assert.assertTrue(parent.getCount() > 0);
+        // Parent has no lifecycle actions of its own
+        Assert.assertEquals(0, parent.getLifecycleDuration(TimeUnit.NANOSECONDS));
+        ProvisionMetrics.KeyMetrics foo = find(metrics.getRuntimeKeyMetrics(), Key.get(Foo.class));
+        Assert.assertTrue(foo.getLifecycleDuration(TimeUnit.NANOSECONDS) > 0);
+    }
+
+    private static ProvisionMetrics.KeyMetrics find(Collection<ProvisionMetrics.KeyMetrics> metrics, Key<?> key) {
+        return metrics.stream()
+                .filter(keyMetrics -> keyMetrics.getKey().equals(key))
+                .findFirst()
+                .orElseThrow(AssertionError::new);
+    }
+}
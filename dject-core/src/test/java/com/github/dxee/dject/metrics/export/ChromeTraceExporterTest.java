@@ -0,0 +1,61 @@
+package com.github.dxee.dject.metrics.export;
+
+import com.github.dxee.dject.Dject;
+import com.github.dxee.dject.metrics.ProvisionMetrics;
+import com.google.inject.AbstractModule;
+import org.junit.Assert;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+import java.io.StringWriter;
+
+public class ChromeTraceExporterTest {
+    @Singleton
+    public static class Database {
+        @PostConstruct
+        public void connect() throws InterruptedException {
+            Thread.sleep(5);
+        }
+    }
+
+    @Singleton
+    public static class Server {
+        @Inject
+        public Server(Database database) {
+        }
+    }
+
+    @Test
+    public void exportsProvisionAndLifecycleSpans() throws Exception {
+        Dject injector = Dject.newBuilder()
+                .withModule(new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bind(Server.class).asEagerSingleton();
+                    }
+                })
+                .build();
+
+        StringWriter writer = new StringWriter();
+        ChromeTraceExporter.export(injector.getInstance(ProvisionMetrics.class), writer);
+        String json = writer.toString();
+
+        Assert.assertTrue(json.startsWith("{\"displayTimeUnit\":\"ms\",\"traceEvents\":["));
+        Assert.assertTrue(json.endsWith("]}"));
+        Assert.assertTrue(json.contains("\"cat\":\"provision\""));
+        Assert.assertTrue(json.contains(Server.class.getName()));
+        Assert.assertTrue(json.contains(Database.class.getName()));
+        Assert.assertTrue(json.contains("\"cat\":\"lifecycle\""));
+        Assert.assertTrue(json.contains("connect"));
+        Assert.assertTrue(json.contains("\"name\":\"thread_name\",\"ph\":\"M\""));
+        Assert.assertTrue(json.contains("\"args\":{\"name\":\"" + Thread.currentThread().getName() + "\"}"));
+        injector.shutdown();
+    }
+
+    @Test
+    public void quotesJsonStrings() {
+        Assert.assertEquals("\"a\\\"b\\\\c\\n\\u0001\"", ChromeTraceExporter.quote("a\"b\\c\n\u0001"));
+    }
+}
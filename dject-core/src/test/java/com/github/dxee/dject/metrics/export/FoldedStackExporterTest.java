@@ -0,0 +1,44 @@
+package com.github.dxee.dject.metrics.export;
+
+import com.github.dxee.dject.metrics.SimpleProvisionMetrics;
+import com.google.inject.Key;
+import com.google.inject.name.Names;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.StringWriter;
+import java.util.Map;
+
+public class FoldedStackExporterTest {
+    @Test
+    public void foldsSelfTimePerPath() throws Exception {
+        SimpleProvisionMetrics metrics = new SimpleProvisionMetrics();
+        for (int i = 0; i < 2; i++) {
+            metrics.push(Key.get(String.class));
+            metrics.push(Key.get(Integer.class, Names.named("a;b")));
+            busy(2);
+            metrics.pop();
+            busy(1);
+            metrics.pop();
+        }
+
+        Map<String, Long> stacks = FoldedStackExporter.fold(metrics);
+        Assert.assertEquals(2, stacks.size());
+        String childPath = stacks.keySet().stream().filter(path -> path.contains("Integer")).findFirst().get();
+        // The separator in the name doesn't add a frame
+        Assert.assertEquals(2, childPath.split(";").length);
+        Assert.assertTrue(childPath.startsWith("java.lang.String;java.lang.Integer [@com.google.inject.name.Named"));
+        long root = stacks.get("java.lang.String");
+        long child = stacks.get(childPath);
+        Assert.assertTrue(root >= 2000);
+        Assert.assertTrue(child >= 4000);
+
+        StringWriter writer = new StringWriter();
+        FoldedStackExporter.export(metrics, writer);
+        Assert.assertEquals("java.lang.String " + root + "\n" + childPath + " " + child + "\n", writer.toString());
+    }
+
+    private static void busy(long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+}
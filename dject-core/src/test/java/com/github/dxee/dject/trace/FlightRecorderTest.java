@@ -0,0 +1,92 @@
+package com.github.dxee.dject.trace;
+
+import com.github.dxee.dject.Dject;
+import com.google.inject.AbstractModule;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Singleton;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class FlightRecorderTest {
+    @Singleton
+    public static class Service {
+        @PostConstruct
+        public void init() {
+        }
+
+        @PreDestroy
+        public void close() {
+        }
+    }
+
+    @Test
+    public void emitsEventsWhileRecording() throws Exception {
+        Assume.assumeTrue(FlightRecorder.get().isAvailable());
+
+        Path file = Files.createTempFile("dject", ".jfr");
+        List<RecordedEvent> events;
+        try {
+            try (Recording recording = new Recording()) {
+                for (String name : new String[]{"Provision", "LifecycleAction", "LifecycleStateChange",
+                        "ScopeCleanup"}) {
+                    recording.enable("com.github.dxee.dject." + name).withThreshold(Duration.ZERO);
+                }
+                recording.start();
+                Dject injector = Dject.newBuilder()
+                        .withModule(new AbstractModule() {
+                            @Override
+                            protected void configure() {
+                                bind(Service.class).asEagerSingleton();
+                            }
+                        })
+                        .build();
+                injector.shutdown();
+                recording.stop();
+                recording.dump(file);
+            }
+            events = RecordingFile.readAllEvents(file).stream()
+                    .filter(event -> event.getEventType().getName().startsWith("com.github.dxee.dject."))
+                    .collect(Collectors.toList());
+        } finally {
+            Files.delete(file);
+        }
+
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().endsWith(".Provision")
+                && event.getString("key").contains(Service.class.getSimpleName())
+                && event.getString("scope").equals("EagerSingleton")));
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().endsWith(".LifecycleAction")
+                && event.getString("phase").equals("PostConstruct")
+                && event.getString("action").contains("Service.init()")));
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().endsWith(".LifecycleAction")
+                && event.getString("phase").equals("PreDestroy")));
+        Assert.assertEquals("[Starting->Started, Started->Stopped, Stopped->Done]", events.stream()
+                .filter(event -> event.getEventType().getName().endsWith(".LifecycleStateChange"))
+                .map(event -> event.getString("from") + "->" + event.getString("to"))
+                .collect(Collectors.toList()).toString());
+        Assert.assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().endsWith(".ScopeCleanup")
+                && event.getString("scope").equals("Singleton")
+                && event.getInt("actions") > 0));
+    }
+
+    @Test
+    public void beginReturnsNullUnlessRecording() {
+        FlightRecorder recorder = FlightRecorder.get();
+        Assert.assertNull(recorder.beginProvision());
+        Assert.assertNull(recorder.beginLifecycleAction());
+        Assert.assertNull(recorder.beginScopeCleanup());
+        // Ending a disabled event is a no-op
+        recorder.endProvision(null, null);
+        recorder.endScopeCleanup(null, "Singleton", 0);
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.dxee.dject.trace;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+public class TraceRingBufferTest {
+    @Test
+    public void dropsEventsWhileFull() {
+        TraceRingBuffer buffer = new TraceRingBuffer(3);
+        Assert.assertEquals(4, buffer.capacity());
+        for (int i = 0; i < 6; i++) {
+            Assert.assertEquals(i < 4, buffer.offer("main", i, "event" + i));
+        }
+        Assert.assertEquals(2, buffer.getDropped());
+
+        List<String> drained = new ArrayList<>();
+        Assert.assertEquals(4, buffer.drain((thread, depth, message) -> drained.add(message + "@" + depth)));
+        Assert.assertEquals("[event0@0, event1@1, event2@2, event3@3]", drained.toString());
+        Assert.assertTrue(buffer.offer("main", 0, "event6"));
+        Assert.assertEquals(1, buffer.drain((thread, depth, message) -> Assert.assertEquals("event6", message)));
+    }
+
+    @Test
+    public void concurrentProducersDontLoseEvents() throws InterruptedException {
+        TraceRingBuffer buffer = new TraceRingBuffer(64);
+        int producers = 4;
+        int events = 10_000;
+        CountDownLatch done = new CountDownLatch(producers);
+        for (int p = 0; p < producers; p++) {
+            String name = "producer-" + p;
+            new Thread(() -> {
+                for (int i = 0; i < events; i++) {
+                    while (!buffer.offer(name, i, name)) {
+                        Thread.yield();
+                    }
+                }
+                done.countDown();
+            }).start();
+        }
+
+        int[] nextDepth = new int[producers];
+        long received = 0;
+        while (received < (long) producers * events) {
+            received += buffer.drain((thread, depth, message) -> {
+                int producer = Integer.parseInt(thread.substring("producer-".length()));
+                // Events of a producer are drained in the order they were offered
+                Assert.assertEquals(nextDepth[producer]++, depth);
+                Assert.assertEquals(thread, message);
+            });
+        }
+        done.await();
+        Assert.assertEquals(0, buffer.drain((thread, depth, message) -> Assert.fail()));
+    }
+}
@@ -2,11 +2,34 @@ package com.github.dxee.dject.trace;
 
 import com.github.dxee.dject.Dject;
 import com.google.inject.AbstractModule;
+import com.google.inject.Inject;
 import com.google.inject.matcher.Matchers;
 
+import org.junit.Assert;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public class TracingProvisionListenerTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    public static class Leaf {
+    }
+
+    public static class Root {
+        @Inject
+        public Root(Leaf leaf) {
+        }
+    }
+
     @Test
     public void testDefault() {
        Dject.newBuilder().withModule(
@@ -18,4 +41,50 @@ public class TracingProvisionListenerTest {
                 })
             .build();
     }
+
+    @Test
+    public void asynchronousTracingKeepsNestingPerThread() throws Exception {
+        Path file = folder.getRoot().toPath().resolve("trace.log");
+        TracingProvisionListener listener = TracingProvisionListener.builder()
+                .asynchronous(1024)
+                .writeTo(file)
+                .build();
+        Dject injector = Dject.newBuilder().withModule(
+                new AbstractModule() {
+                    @Override
+                    protected void configure() {
+                        bindListener(Matchers.any(), listener);
+                    }
+                })
+                .build();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Thread thread = new Thread(() -> {
+                for (int j = 0; j < 50; j++) {
+                    injector.getInstance(Root.class);
+                }
+            }, "provisioner-" + i);
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        listener.close();
+
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8).stream()
+                .filter(line -> line.startsWith("[provisioner-"))
+                .collect(Collectors.toList());
+        Assert.assertEquals(0, listener.getDroppedMessages());
+        Assert.assertEquals(4 * 50 * 2, lines.size());
+        for (String line : lines) {
+            String message = line.substring(line.indexOf("] ") + 2);
+            if (message.contains(Leaf.class.getSimpleName())) {
+                Assert.assertTrue(line, message.startsWith("  Key"));
+            } else {
+                Assert.assertTrue(line, message.startsWith("Key"));
+            }
+        }
+    }
 }